@@ -0,0 +1,67 @@
+-- Synthetic load for query benchmarks: 10,000 users and 10,000,000 documents,
+-- each with a summary, uploaded over the last three years. Half of the
+-- documents belong to 1% of the users, so both small and very large
+-- accounts can be measured.
+--
+-- Run against a scratch database that the application (Flyway) has migrated:
+--   mysql -u root -p gistify_bench < generate-data.sql
+-- Expect it to take a while; rows are committed in batches of 100,000.
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+DROP PROCEDURE IF EXISTS generate_bench_data;
+
+DELIMITER //
+CREATE PROCEDURE generate_bench_data(IN user_count INT, IN document_count INT, IN batch_size INT)
+BEGIN
+    DECLARE generated INT DEFAULT 0;
+    DECLARE first_user BIGINT;
+    DECLARE last_document BIGINT;
+
+    INSERT INTO users (google_id, email, name, created_at)
+    WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < user_count)
+    SELECT CONCAT('bench-', n), CONCAT('bench', n, '@example.com'), CONCAT('Bench User ', n), NOW()
+    FROM seq;
+
+    SELECT MIN(id) INTO first_user FROM users WHERE google_id LIKE 'bench-%';
+
+    WHILE generated < document_count DO
+        SELECT COALESCE(MAX(id), 0) INTO last_document FROM documents;
+
+        INSERT INTO documents (user_id, filename, file_path, file_type, file_size, upload_date, version, content_hash)
+        WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < batch_size)
+        SELECT IF(MOD(n, 2) = 0,
+                  first_user + MOD(generated + n, GREATEST(1, user_count DIV 100)),
+                  first_user + MOD(generated + n, user_count)),
+               CONCAT('report-', MOD(generated + n, 5000), '.pdf'),
+               CONCAT('/bench/uploads/', generated + n, '.pdf'),
+               'application/pdf',
+               10000 + FLOOR(RAND() * 5000000),
+               NOW(6) - INTERVAL FLOOR(RAND() * 1095 * 86400) SECOND,
+               1,
+               SHA2(generated + n, 256)
+        FROM seq;
+
+        INSERT INTO summaries (document_id, summary_text, title, keywords, document_type, created_at, archived)
+        SELECT d.id,
+               REPEAT('Synthetic summary sentence for benchmarking the summaries table. ', 12),
+               CONCAT('Report ', d.id),
+               'benchmark, synthetic, report',
+               'report',
+               d.upload_date,
+               FALSE
+        FROM documents d
+        WHERE d.id > last_document;
+
+        COMMIT;
+        SET generated = generated + batch_size;
+    END WHILE;
+END //
+DELIMITER ;
+
+SET autocommit = 0;
+CALL generate_bench_data(10000, 10000000, 100000);
+SET autocommit = 1;
+DROP PROCEDURE generate_bench_data;
+
+ANALYZE TABLE users, documents, summaries;
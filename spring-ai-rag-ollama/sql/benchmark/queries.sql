@@ -0,0 +1,46 @@
+-- The repository's hot queries against the data from generate-data.sql.
+-- Compare EXPLAIN ANALYZE output before and after a migration, for the
+-- largest account and a typical one.
+
+SET @large_user = (SELECT MIN(id) FROM users WHERE google_id LIKE 'bench-%');
+SET @small_user = (SELECT MAX(id) FROM users WHERE google_id LIKE 'bench-%');
+
+-- DocumentRepository.findByUserIdOrderByUploadDateDesc (home page listing)
+EXPLAIN ANALYZE
+SELECT d.*, s.* FROM documents d LEFT JOIN summaries s ON s.document_id = d.id
+WHERE d.user_id = @large_user ORDER BY d.upload_date DESC;
+
+EXPLAIN ANALYZE
+SELECT d.*, s.* FROM documents d LEFT JOIN summaries s ON s.document_id = d.id
+WHERE d.user_id = @small_user ORDER BY d.upload_date DESC;
+
+-- DocumentRepository.countByUserId (covered by idx_documents_user_upload)
+EXPLAIN ANALYZE
+SELECT COUNT(d.id) FROM documents d WHERE d.user_id = @large_user;
+
+-- DocumentRepository.findFirstByUserIdAndFilenameOrderByUploadDateDesc (version detection)
+EXPLAIN ANALYZE
+SELECT d.* FROM documents d
+WHERE d.user_id = @large_user AND d.filename = 'report-42.pdf'
+ORDER BY d.upload_date DESC LIMIT 1;
+
+-- SummaryRepository.findViewByDocumentId (summary read, through the archive)
+SET @document_id = (SELECT MAX(id) FROM documents) DIV 2;
+EXPLAIN ANALYZE
+SELECT d.id, d.user_id, d.filename, COALESCE(a.summary_text, s.summary_text), s.created_at
+FROM summaries s JOIN documents d ON d.id = s.document_id
+LEFT JOIN summary_archive a ON a.summary_id = s.id
+WHERE d.id = @document_id;
+
+-- SummaryRepository.findArchivableIds (one archive batch; note the pruned partitions)
+EXPLAIN ANALYZE
+SELECT s.id FROM summaries s JOIN documents d ON d.id = s.document_id
+WHERE s.archived = FALSE AND d.upload_date < NOW() - INTERVAL 365 DAY
+ORDER BY s.id LIMIT 1000;
+
+-- Table sizes: the archive should keep summaries' data length roughly flat
+SELECT TABLE_NAME, TABLE_ROWS,
+       ROUND(DATA_LENGTH / 1024 / 1024) AS data_mb,
+       ROUND(INDEX_LENGTH / 1024 / 1024) AS index_mb
+FROM information_schema.TABLES
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN ('documents', 'summaries', 'summary_archive');
@@ -0,0 +1,193 @@
+package com.techie.springai.rag.Controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.techie.springai.rag.Repository.DocumentFileView;
+import com.techie.springai.rag.Repository.DocumentRepository;
+import com.techie.springai.rag.service.DocumentService;
+import com.techie.springai.rag.service.FileDownloadService;
+import com.techie.springai.rag.service.StorageLifecycleService;
+import com.techie.springai.rag.service.SummaryExportService;
+import com.techie.springai.rag.service.SummaryReadService;
+import com.techie.springai.rag.service.SummaryReadService.CachedSummary;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/documents")
+public class DocumentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
+
+    private final SummaryReadService summaryReadService;
+    private final FileDownloadService fileDownloadService;
+    private final DocumentRepository documentRepository;
+    private final StorageLifecycleService storageLifecycleService;
+    private final SummaryExportService summaryExportService;
+    private final CacheControl summaryCacheControl;
+
+    public DocumentController(SummaryReadService summaryReadService,
+                              FileDownloadService fileDownloadService,
+                              DocumentRepository documentRepository,
+                              StorageLifecycleService storageLifecycleService,
+                              SummaryExportService summaryExportService,
+                              @Value("${summary.read.max-age:10m}") Duration maxAge) {
+        this.summaryReadService = summaryReadService;
+        this.fileDownloadService = fileDownloadService;
+        this.documentRepository = documentRepository;
+        this.storageLifecycleService = storageLifecycleService;
+        this.summaryExportService = summaryExportService;
+        // Per-user content: browsers may cache, shared proxies may not
+        this.summaryCacheControl = CacheControl.maxAge(maxAge).cachePrivate();
+    }
+
+    @GetMapping("/{documentId}/summary")
+    public ResponseEntity<String> getSummary(
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal OAuth2User principal,
+            WebRequest request) {
+
+        String email = principal != null ? principal.getAttribute("email") : null;
+        if (email == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body("Error: User not authenticated. Please log in.");
+        }
+
+        CachedSummary summary = summaryReadService.findForUser(documentId, email).orElse(null);
+        if (summary == null) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body("Error: Summary not found.");
+        }
+
+        // Pending or failed: the job may finish or be retried at any time
+        if (summary.etag() == null) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body(summary.view().summaryText());
+        }
+
+        if (request.checkNotModified(summary.etag())) {
+            logger.debug("Summary of document {} not modified", documentId);
+            return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(summary.etag())
+                .cacheControl(summaryCacheControl)
+                .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(summary.etag())
+                .cacheControl(summaryCacheControl)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(summary.view().summaryText());
+    }
+
+    /**
+     * Downloads the original upload. Supports Range/If-Range for resumable
+     * downloads; see FileDownloadService for the zero-copy transfer. Files
+     * moved to the cold tier are rehydrated first.
+     */
+    @GetMapping("/{documentId}/download")
+    public void downloadOriginal(
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal OAuth2User principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        String email = principal != null ? principal.getAttribute("email") : null;
+        Long userId = email != null ? summaryReadService.findUserId(email) : null;
+        if (userId == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "User not authenticated");
+            return;
+        }
+
+        DocumentFileView file = documentRepository.findFileView(documentId, userId).orElse(null);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Document not found");
+            return;
+        }
+
+        logger.info("📥 User {} downloading document {}", userId, documentId);
+        fileDownloadService.send(storageLifecycleService.resolveForRead(file.filePath()),
+                file.filename(), file.fileType(), request, response);
+    }
+
+    @GetMapping("/{documentId}/summary/download")
+    public ResponseEntity<String> downloadSummary(
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal OAuth2User principal) {
+
+        String email = principal != null ? principal.getAttribute("email") : null;
+        CachedSummary summary = email != null
+                ? summaryReadService.findForUser(documentId, email).orElse(null)
+                : null;
+        if (summary == null) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body("Error: Summary not found.");
+        }
+
+        String summaryFilename = DocumentService.summaryFilenameFor(summary.view().filename());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (summary.etag() != null) {
+            response.eTag(summary.etag());
+        }
+        return response
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(summaryFilename, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(summary.view().summaryText());
+    }
+
+    /**
+     * All of the user's summaries as one ZIP archive, streamed to the client
+     * while it is being written (no Content-Length, nothing buffered).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSummaries(
+            @AuthenticationPrincipal OAuth2User principal) {
+
+        String email = principal != null ? principal.getAttribute("email") : null;
+        Long userId = email != null ? summaryReadService.findUserId(email) : null;
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        logger.info("📦 User {} exporting summaries", userId);
+        StreamingResponseBody body = out -> summaryExportService.writeZip(userId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("summaries.zip")
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+}
@@ -0,0 +1,13 @@
+package com.techie.springai.rag.Repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.techie.springai.rag.entity.ChunkSummary;
+
+@Repository
+public interface ChunkSummaryRepository extends JpaRepository<ChunkSummary, Long> {
+    Optional<ChunkSummary> findByChunkHashAndModel(String chunkHash, String model);
+}
@@ -0,0 +1,24 @@
+package com.techie.springai.rag.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.techie.springai.rag.entity.ClusterLock;
+
+@Repository
+public interface ClusterLockRepository extends JpaRepository<ClusterLock, String> {
+
+    // Takes over the lock if it has expired, or renews it if we already hold it
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterLock l SET l.owner = :owner, l.expiresAt = :expiresAt "
+         + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
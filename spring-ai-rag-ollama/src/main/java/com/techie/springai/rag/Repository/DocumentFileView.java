@@ -0,0 +1,7 @@
+package com.techie.springai.rag.Repository;
+
+/**
+ * Just the columns needed to stream an uploaded file back to its owner.
+ */
+public record DocumentFileView(Long documentId, String filename, String filePath, String fileType) {
+}
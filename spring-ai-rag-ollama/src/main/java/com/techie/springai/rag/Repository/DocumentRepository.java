@@ -1,15 +1,42 @@
 package com.techie.springai.rag.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.techie.springai.rag.entity.Document;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+    // Fetch summaries in the same query instead of one select per document
+    @EntityGraph(attributePaths = "summary")
     List<Document> findByUserIdOrderByUploadDateDesc(Long userId);
     List<Document> findByUserId(Long userId);
     long countByUserId(Long userId);
+    Optional<Document> findByIdAndUserId(Long id, Long userId);
+    Optional<Document> findFirstByUserIdAndFilenameOrderByUploadDateDesc(Long userId, String filename);
+
+    // Ownership check and file location in one query, without loading the entity
+    @Query("SELECT new com.techie.springai.rag.Repository.DocumentFileView(d.id, d.filename, d.filePath, d.fileType) "
+         + "FROM Document d WHERE d.id = :documentId AND d.user.id = :userId")
+    Optional<DocumentFileView> findFileView(@Param("documentId") Long documentId, @Param("userId") Long userId);
+
+    @Query("SELECT new com.techie.springai.rag.Repository.DocumentFileView(d.id, d.filename, d.filePath, d.fileType) "
+         + "FROM Document d WHERE d.user.id = :userId")
+    List<DocumentFileView> findFileViewsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.textSignature = :signature WHERE d.id = :documentId")
+    int updateTextSignature(@Param("documentId") Long documentId, @Param("signature") byte[] signature);
+
+    @Query("SELECT new com.techie.springai.rag.Repository.DocumentSignatureView(d.id, d.user.id, d.textSignature) "
+         + "FROM Document d WHERE d.textSignature IS NOT NULL ORDER BY d.uploadDate DESC")
+    List<DocumentSignatureView> findSignatureViews(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.techie.springai.rag.Repository;
+
+/**
+ * A document's text signature and owner, for rebuilding the near-duplicate index.
+ */
+public record DocumentSignatureView(Long documentId, Long userId, byte[] signature) {
+}
@@ -0,0 +1,13 @@
+package com.techie.springai.rag.Repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.techie.springai.rag.entity.IngestedFile;
+
+@Repository
+public interface IngestedFileRepository extends JpaRepository<IngestedFile, Long> {
+    Optional<IngestedFile> findByPathHash(String pathHash);
+}
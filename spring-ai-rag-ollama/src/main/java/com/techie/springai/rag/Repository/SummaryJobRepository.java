@@ -0,0 +1,39 @@
+package com.techie.springai.rag.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.techie.springai.rag.entity.SummaryJob;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface SummaryJobRepository extends JpaRepository<SummaryJob, Long> {
+    Optional<SummaryJob> findByIdAndUserId(Long id, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SummaryJob> findLockedById(Long id);
+
+    // Rows locked by another node's open lease transaction are skipped, not waited on.
+    // A PENDING job with lease_expires_at set was released and backs off until then.
+    @Query(value = "SELECT * FROM summary_jobs "
+                 + "WHERE status IN ('PENDING', 'LEASED') AND (lease_expires_at IS NULL OR lease_expires_at < :now) "
+                 + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<SummaryJob> lockAvailable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE SummaryJob j SET j.leaseExpiresAt = :expiresAt "
+         + "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = :status")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("status") SummaryJob.Status status, @Param("expiresAt") LocalDateTime expiresAt);
+}
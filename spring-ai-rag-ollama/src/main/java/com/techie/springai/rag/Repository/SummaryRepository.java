@@ -1,8 +1,14 @@
 package com.techie.springai.rag.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.techie.springai.rag.entity.Summary;
@@ -10,4 +16,41 @@ import com.techie.springai.rag.entity.Summary;
 @Repository
 public interface SummaryRepository extends JpaRepository<Summary, Long> {
     Optional<Summary> findByDocumentId(Long documentId);
+
+    // Archived summaries read their text from summary_archive
+    @Query("SELECT new com.techie.springai.rag.Repository.SummaryView(d.id, d.user.id, d.filename, d.uploadDate, "
+         + "COALESCE(a.summaryText, s.summaryText), s.status, s.createdAt) "
+         + "FROM Summary s JOIN s.document d LEFT JOIN SummaryArchive a ON a.summaryId = s.id "
+         + "WHERE d.id = :documentId")
+    Optional<SummaryView> findViewByDocumentId(@Param("documentId") Long documentId);
+
+    // Keyset pages of a user's summaries, for the streaming export. Keyed on (upload_date, id)
+    // so each page is a range read of idx_documents_user_upload (user_id, upload_date, id)
+    @Query("SELECT new com.techie.springai.rag.Repository.SummaryView(d.id, d.user.id, d.filename, d.uploadDate, "
+         + "COALESCE(a.summaryText, s.summaryText), s.status, s.createdAt) "
+         + "FROM Summary s JOIN s.document d LEFT JOIN SummaryArchive a ON a.summaryId = s.id "
+         + "WHERE d.user.id = :userId "
+         + "AND (d.uploadDate > :afterDate OR (d.uploadDate = :afterDate AND d.id > :afterId)) "
+         + "ORDER BY d.uploadDate, d.id")
+    List<SummaryView> findViewsByUserIdAfter(@Param("userId") Long userId, @Param("afterDate") LocalDateTime afterDate,
+                                             @Param("afterId") Long afterId, Pageable pageable);
+
+    // Oldest first via idx_summaries_archived; the date bound prunes document partitions
+    @Query(value = "SELECT s.id FROM summaries s JOIN documents d ON d.id = s.document_id "
+                 + "WHERE s.archived = FALSE AND d.upload_date < :cutoff "
+                 + "ORDER BY s.id LIMIT :limit", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query("SELECT s.document.id FROM Summary s WHERE s.id IN :ids")
+    List<Long> findDocumentIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO summary_archive (summary_id, document_id, summary_text, archived_at) "
+                 + "SELECT s.id, s.document_id, s.summary_text, :archivedAt FROM summaries s "
+                 + "WHERE s.id IN (:ids) AND s.archived = FALSE", nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("UPDATE Summary s SET s.summaryText = '', s.archived = true WHERE s.id IN :ids AND s.archived = false")
+    int markArchived(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
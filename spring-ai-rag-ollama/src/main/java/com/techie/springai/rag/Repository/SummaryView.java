@@ -0,0 +1,13 @@
+package com.techie.springai.rag.Repository;
+
+import java.time.LocalDateTime;
+
+import com.techie.springai.rag.entity.Summary;
+
+/**
+ * Read-only projection of a document's summary with just enough of the
+ * document to check ownership, loaded without the entity graph.
+ */
+public record SummaryView(Long documentId, Long userId, String filename, LocalDateTime uploadDate,
+                          String summaryText, Summary.Status status, LocalDateTime createdAt) {
+}
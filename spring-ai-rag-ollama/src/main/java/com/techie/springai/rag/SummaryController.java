@@ -1,19 +1,18 @@
 package com.techie.springai.rag;
 
-import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
 
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.sax.BodyContentHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -22,8 +21,27 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.techie.springai.rag.Repository.UserRepository;
 import com.techie.springai.rag.entity.Document;
+import com.techie.springai.rag.entity.SummaryJob;
 import com.techie.springai.rag.entity.User;
+import com.techie.springai.rag.service.ContentHasher;
+import com.techie.springai.rag.service.DocumentAnalysis;
 import com.techie.springai.rag.service.DocumentService;
+import com.techie.springai.rag.service.MemoryBudget;
+import com.techie.springai.rag.service.MemoryBudgetExceededException;
+import com.techie.springai.rag.service.NearDuplicateService;
+import com.techie.springai.rag.service.NearDuplicateService.NearDuplicate;
+import com.techie.springai.rag.service.PriorityClass;
+import com.techie.springai.rag.service.QuotaExceededException;
+import com.techie.springai.rag.service.QuotaService;
+import com.techie.springai.rag.service.SummarizationService;
+import com.techie.springai.rag.service.SummaryJobService;
+import com.techie.springai.rag.service.SummaryScheduler;
+import com.techie.springai.rag.service.SummaryTier;
+import com.techie.springai.rag.service.TextExtractionService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @RestController
 @RequestMapping("/api")
@@ -31,25 +49,55 @@ public class SummaryController {
 
     private static final Logger logger = LoggerFactory.getLogger(SummaryController.class);
     
-    private static final int MAX_CONTENT_LENGTH = 10_000_000;
-    private static final int AI_CONTEXT_LIMIT = 5000;
-    private static final int MIN_TEXT_LENGTH = 100;
+    private static final int MIN_TEXT_LENGTH = TextExtractionService.MIN_TEXT_LENGTH;
     
-    private final ChatClient chatClient;
+    private final TextExtractionService textExtractionService;
+    private final SummarizationService summarizationService;
+    private final SummaryScheduler summaryScheduler;
+    private final QuotaService quotaService;
+    private final MemoryBudget memoryBudget;
     private final DocumentService documentService;
+    private final NearDuplicateService nearDuplicateService;
+    private final SummaryJobService summaryJobService;
     private final UserRepository userRepository;
-
-    public SummaryController(ChatClient chatClient, DocumentService documentService, UserRepository userRepository) {
-        this.chatClient = chatClient;
+    private final Scheduler blockingScheduler;
+
+    public SummaryController(TextExtractionService textExtractionService,
+                             SummarizationService summarizationService,
+                             SummaryScheduler summaryScheduler,
+                             QuotaService quotaService,
+                             MemoryBudget memoryBudget,
+                             DocumentService documentService,
+                             NearDuplicateService nearDuplicateService,
+                             SummaryJobService summaryJobService,
+                             UserRepository userRepository,
+                             Scheduler blockingScheduler) {
+        this.textExtractionService = textExtractionService;
+        this.summarizationService = summarizationService;
+        this.summaryScheduler = summaryScheduler;
+        this.quotaService = quotaService;
+        this.memoryBudget = memoryBudget;
         this.documentService = documentService;
+        this.nearDuplicateService = nearDuplicateService;
+        this.summaryJobService = summaryJobService;
         this.userRepository = userRepository;
+        this.blockingScheduler = blockingScheduler;
     }
 
     @PostMapping("/summary")
     public ResponseEntity<String> summarize(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "tier", defaultValue = "balanced") String tierParam,
+            @RequestParam(value = "priority", defaultValue = "interactive") String priorityParam,
+            @RequestParam(value = "parentId", required = false) Long parentId,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
             @AuthenticationPrincipal OAuth2User principal) {
 
+        MemoryBudget.Reservation reservation = null;
+        // Quota charged so far, refunded if the request fails before the document is saved
+        Long quotaUserId = null;
+        long chargedBytes = 0;
+        long chargedTokens = 0;
         try {
             if (principal == null) {
                 logger.error("❌ User not authenticated");
@@ -93,7 +141,29 @@ public class SummaryController {
                     .body("Error: File size exceeds 50MB limit.");
             }
 
-            logger.info("Processing file: {} ({})", filename, contentType);
+            SummaryTier tier = SummaryTier.fromParam(tierParam);
+            if (tier == null) {
+                return ResponseEntity
+                    .badRequest()
+                    .body("Error: Invalid tier. Use fast, balanced or thorough.");
+            }
+
+            PriorityClass priority = PriorityClass.fromParam(priorityParam);
+            if (priority == null) {
+                return ResponseEntity
+                    .badRequest()
+                    .body("Error: Invalid priority. Use interactive or bulk.");
+            }
+
+            // MEMORY BUDGET: held until the response is built, so concurrent large files can't exhaust the heap.
+            // Reserved before the byte quota is charged, so a 503 doesn't cost the user quota.
+            reservation = memoryBudget.reserve(memoryBudget.estimateUpload(file.getSize()));
+
+            quotaService.consumeBytes(user.getId(), file.getSize());
+            quotaUserId = user.getId();
+            chargedBytes = file.getSize();
+
+            logger.info("Processing file: {} ({}) with tier {}", filename, contentType, tier.key());
 
             String extractedText = extractTextWithTika(file);
 
@@ -104,10 +174,66 @@ public class SummaryController {
             }
 
             logger.info("Extracted {} characters from {}", extractedText.length(), filename);
+            reservation.shrinkTo(memoryBudget.estimateText(extractedText.length()));
 
-            String summary = generateSummaryWithAI(extractedText);
+            // VERSION TRACKING: explicit parent, or the latest upload with the same filename
+            Document previous = documentService.findPreviousVersion(user.getId(), filename, parentId).orElse(null);
+            if (parentId != null && previous == null) {
+                return ResponseEntity
+                    .badRequest()
+                    .body("Error: Parent document not found.");
+            }
+
+            String contentHash = ContentHasher.sha256(extractedText);
+            int[] signature = nearDuplicateService.signature(extractedText);
+            DocumentAnalysis analysis;
+
+            if (previous != null && contentHash.equals(previous.getContentHash()) && DocumentService.hasUsableSummary(previous)) {
+                logger.info("♻️ Content unchanged since document ID: {}, reusing summary", previous.getId());
+                analysis = DocumentAnalysis.from(previous.getSummary());
+            } else {
+                // NEAR-DUPLICATES: e.g. the same report re-exported with a new timestamp or cover page
+                NearDuplicate nearDuplicate = nearDuplicateService.find(user.getId(), signature).orElse(null);
+                if (nearDuplicate != null && nearDuplicate.reusable()) {
+                    logger.info("♻️ Near-duplicate of document ID: {}, reusing summary", nearDuplicate.documentId());
+                    analysis = DocumentAnalysis.of(nearDuplicate.summaryText());
+                } else {
+                    // New versions take the chunked path, reusing the unchanged sections and caching
+                    // the rest for later versions; partial matches only when most sections are cached
+                    boolean incremental = previous != null || (nearDuplicate != null
+                            && summarizationService.reusesChunkCache(extractedText, tier));
+                    long estimatedTokens = summarizationService.estimateTokens(extractedText, tier, incremental);
+                    quotaService.consumeLlmTokens(user.getId(), estimatedTokens);
+                    chargedTokens = estimatedTokens;
+
+                    // ASYNC: queue in the shared job table; any node may pick it up (it refunds a failed job)
+                    if (async) {
+                        SummaryJob job = summaryJobService.submit(file, user.getId(), previous, contentHash,
+                                extractedText, tier, priority, incremental);
+                        return ResponseEntity
+                            .status(HttpStatus.ACCEPTED)
+                            .body(String.format("""
+                                   ⏳ Document Queued for Summarization
+                                   
+                                   File: %s
+                                   Document ID: %d
+                                   Job ID: %d
+                                   """, filename, job.getDocumentId(), job.getId()));
+                    }
+
+                    analysis = summaryScheduler.submit(user.getId(), priority,
+                            () -> generateSummaryWithAI(extractedText, tier, incremental));
+                }
+            }
 
-            Document savedDocument = documentService.saveDocument(file, summary, user.getId());
+            Document savedDocument = documentService.saveDocument(file, analysis, user.getId(), previous, contentHash);
+            if (analysis.isComplete()) {
+                nearDuplicateService.register(savedDocument.getId(), user.getId(), signature);
+            } else {
+                quotaService.refundLlmTokens(user.getId(), chargedTokens);
+            }
+            // The upload is stored now; nothing left to refund
+            quotaUserId = null;
             
             logger.info("✅ Saved document ID: {} for user: {}", savedDocument.getId(), user.getEmail());
 
@@ -116,28 +242,245 @@ public class SummaryController {
                    
                    File: %s
                    Size: %.2f KB
-                   Document ID: %d
+                   Document ID: %d (version %d)
                    User: %s
-                   
+                   Tier: %s
+                   %s
                    AI-Generated Summary:
                    %s
                    """, 
                    filename, 
                    file.getSize() / 1024.0,
                    savedDocument.getId(),
+                   savedDocument.getVersion(),
                    user.getName(),
-                   summary);
+                   tier.key(),
+                   describeMetadata(analysis),
+                   analysis.summary());
 
             return ResponseEntity.ok(response);
 
+        } catch (QuotaExceededException e) {
+            logger.warn("⛔ Quota exceeded: {}", e.getMessage());
+            refundQuota(quotaUserId, chargedBytes, chargedTokens);
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .body("Error: " + e.getMessage());
+        } catch (MemoryBudgetExceededException e) {
+            refundQuota(quotaUserId, chargedBytes, chargedTokens);
+            return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body("Error: " + e.getMessage());
+        } catch (TimeoutException e) {
+            refundQuota(quotaUserId, chargedBytes, chargedTokens);
+            return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "60")
+                .body("Error: " + e.getMessage() + " Please try again later.");
         } catch (Exception e) {
             logger.error("Error processing document: {}", e.getMessage(), e);
+            refundQuota(quotaUserId, chargedBytes, chargedTokens);
             return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error while processing document: " + e.getMessage());
+        } finally {
+            if (reservation != null) {
+                reservation.close();
+            }
         }
     }
 
+    /**
+     * Status of a job queued with /api/summary?async=true.
+     */
+    @GetMapping("/summary/jobs/{jobId}")
+    public ResponseEntity<String> jobStatus(@PathVariable Long jobId,
+                                            @AuthenticationPrincipal OAuth2User principal) {
+        if (principal == null || principal.getAttribute("email") == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body("Error: User not authenticated. Please log in.");
+        }
+
+        User user = getOrCreateUser(principal);
+        return summaryJobService.findForUser(jobId, user.getId())
+                .map(job -> ResponseEntity.ok(String.format("""
+                       Job ID: %d
+                       Document ID: %d
+                       Status: %s
+                       Attempts: %d
+                       """, job.getId(), job.getDocumentId(), job.getStatus(), job.getAttempts())))
+                .orElseGet(() -> ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body("Error: Job not found."));
+    }
+
+    /**
+     * Streaming variant of /api/summary. The summary is sent as server-sent
+     * events ("token", then "saved" with the document ID) while Ollama
+     * generates it. Extraction and persistence run on the bounded blocking
+     * scheduler and the model is called through its streaming API, so no
+     * servlet thread waits on any of them. Each event is written only after
+     * the previous write completed, so a slow client slows the Ollama stream.
+     * The document's memory reservation is held until the stream terminates.
+     */
+    @PostMapping(value = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> summarizeStream(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "tier", defaultValue = "balanced") String tierParam,
+            @RequestParam(value = "priority", defaultValue = "interactive") String priorityParam,
+            @RequestParam(value = "parentId", required = false) Long parentId,
+            @AuthenticationPrincipal OAuth2User principal) {
+
+        if (principal == null || principal.getAttribute("email") == null) {
+            return errorEvent("User not authenticated. Please log in.");
+        }
+        if (file == null || file.isEmpty()) {
+            return errorEvent("No file uploaded or file is empty.");
+        }
+
+        String filename = file.getOriginalFilename() != null
+            ? file.getOriginalFilename()
+            : "unknown";
+
+        if (!isValidFileType(filename, file.getContentType())) {
+            return errorEvent("Invalid file type. Only PDF, DOCX, and TXT files are supported.");
+        }
+        if (file.getSize() > 50 * 1024 * 1024) {
+            return errorEvent("File size exceeds 50MB limit.");
+        }
+
+        SummaryTier tier = SummaryTier.fromParam(tierParam);
+        PriorityClass priority = PriorityClass.fromParam(priorityParam);
+        if (tier == null || priority == null) {
+            return errorEvent("Invalid tier or priority.");
+        }
+
+        return Flux.using(
+                        () -> memoryBudget.reserve(memoryBudget.estimateUpload(file.getSize())),
+                        reservation -> Mono.fromCallable(() -> prepareUpload(principal, file, filename, parentId, tier, reservation))
+                                .flatMapMany(upload -> streamSummary(upload, file, tier, priority)),
+                        MemoryBudget.Reservation::close)
+                // Waiting for the budget and extraction both block, so subscribe off the servlet thread
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(e -> {
+                    logger.error("Error streaming summary for {}: {}", filename, e.getMessage(), e);
+                    return errorEvent(e.getMessage());
+                });
+    }
+
+    private Flux<ServerSentEvent<String>> streamSummary(PreparedUpload upload, MultipartFile file,
+                                                        SummaryTier tier, PriorityClass priority) {
+        if (upload.text() == null) {
+            return Flux.just(event("message", "This document contains insufficient extractable text."));
+        }
+
+        StringBuilder summary = new StringBuilder();
+        Flux<String> tokens = upload.reusedSummary() != null
+                ? Flux.just(upload.reusedSummary())
+                : Flux.usingWhen(
+                        Mono.fromFuture(() -> summaryScheduler.acquire(upload.user().getId(), priority)),
+                        slot -> summarizationService.summarizeStream(upload.text(), tier, upload.incremental()),
+                        slot -> Mono.fromRunnable(slot));
+        Long userId = upload.user().getId();
+
+        Mono<ServerSentEvent<String>> saved = Mono.fromCallable(() -> {
+                    // Failed summaries end the stream with an error; an empty one is saved as failed
+                    String text = summary.toString().trim();
+                    DocumentAnalysis analysis = text.isEmpty()
+                            ? DocumentAnalysis.failed(SummarizationService.NO_SUMMARY_MESSAGE)
+                            : DocumentAnalysis.of(text);
+                    Document document = documentService.saveDocument(
+                            file, analysis, userId, upload.previous(), upload.contentHash());
+                    if (analysis.isComplete()) {
+                        nearDuplicateService.register(document.getId(), userId, upload.signature());
+                    } else {
+                        quotaService.refundLlmTokens(userId, upload.llmTokens());
+                    }
+                    return document;
+                })
+                .subscribeOn(blockingScheduler)
+                .map(document -> event("saved", String.valueOf(document.getId())));
+
+        // Failed, rejected or timed out before the document was saved
+        return tokens
+                .doOnNext(summary::append)
+                .map(token -> event("token", token))
+                .concatWith(saved)
+                .doOnError(e -> refundQuota(userId, file.getSize(), upload.llmTokens()));
+    }
+
+    /**
+     * Blocking preparation for the streaming path: user lookup, quotas,
+     * extraction and version detection.
+     */
+    private PreparedUpload prepareUpload(OAuth2User principal, MultipartFile file, String filename,
+                                         Long parentId, SummaryTier tier, MemoryBudget.Reservation reservation) {
+        User user = getOrCreateUser(principal);
+        // The memory reservation is already held (Flux.using), so the quota is only charged once admitted
+        quotaService.consumeBytes(user.getId(), file.getSize());
+        try {
+            return prepareText(user, file, filename, parentId, tier, reservation);
+        } catch (RuntimeException e) {
+            quotaService.refundBytes(user.getId(), file.getSize());
+            throw e;
+        }
+    }
+
+    private PreparedUpload prepareText(User user, MultipartFile file, String filename,
+                                       Long parentId, SummaryTier tier, MemoryBudget.Reservation reservation) {
+        String extractedText = extractTextWithTika(file);
+        if (extractedText == null || extractedText.trim().length() < MIN_TEXT_LENGTH) {
+            return new PreparedUpload(user, null, null, null, null, null, false, 0);
+        }
+        reservation.shrinkTo(memoryBudget.estimateText(extractedText.length()));
+
+        Document previous = documentService.findPreviousVersion(user.getId(), filename, parentId).orElse(null);
+        if (parentId != null && previous == null) {
+            throw new IllegalArgumentException("Parent document not found.");
+        }
+
+        String contentHash = ContentHasher.sha256(extractedText);
+        int[] signature = nearDuplicateService.signature(extractedText);
+        if (previous != null && contentHash.equals(previous.getContentHash()) && DocumentService.hasUsableSummary(previous)) {
+            return new PreparedUpload(user, extractedText, previous, contentHash,
+                    previous.getSummary().getSummaryText(), signature, false, 0);
+        }
+
+        NearDuplicate nearDuplicate = nearDuplicateService.find(user.getId(), signature).orElse(null);
+        if (nearDuplicate != null && nearDuplicate.reusable()) {
+            return new PreparedUpload(user, extractedText, previous, contentHash,
+                    nearDuplicate.summaryText(), signature, false, 0);
+        }
+
+        boolean incremental = previous != null || (nearDuplicate != null
+                && summarizationService.reusesChunkCache(extractedText, tier));
+        long estimatedTokens = summarizationService.estimateTokens(extractedText, tier, incremental);
+        quotaService.consumeLlmTokens(user.getId(), estimatedTokens);
+        return new PreparedUpload(user, extractedText, previous, contentHash, null, signature, incremental,
+                estimatedTokens);
+    }
+
+    private record PreparedUpload(User user, String text, Document previous, String contentHash,
+                                  String reusedSummary, int[] signature, boolean incremental, long llmTokens) {
+    }
+
+    private void refundQuota(Long userId, long bytes, long llmTokens) {
+        if (userId != null) {
+            quotaService.refundBytes(userId, bytes);
+            quotaService.refundLlmTokens(userId, llmTokens);
+        }
+    }
+
+    private static ServerSentEvent<String> event(String name, String data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    private static Flux<ServerSentEvent<String>> errorEvent(String message) {
+        return Flux.just(event("error", "Error: " + message));
+    }
+
     // NEW METHOD: Get or create user
     private User getOrCreateUser(OAuth2User principal) {
         String email = principal.getAttribute("email");
@@ -171,62 +514,28 @@ public class SummaryController {
     }
 
     private String extractTextWithTika(MultipartFile file) {
-        try {
-            AutoDetectParser parser = new AutoDetectParser();
-            BodyContentHandler handler = new BodyContentHandler(MAX_CONTENT_LENGTH);
-            Metadata metadata = new Metadata();
-            ParseContext context = new ParseContext();
-
-            try (InputStream is = file.getInputStream()) {
-                parser.parse(is, handler, metadata, context);
-            }
-
-            String text = handler.toString().trim();
-
-            if (text.isEmpty()) {
-                logger.warn("No text extracted from file: {}", file.getOriginalFilename());
-                return null;
-            }
-
-            return text;
-
-        } catch (org.apache.tika.exception.TikaException e) {
-            logger.error("Tika parsing error: {}", e.getMessage());
-            throw new RuntimeException("Document parsing failed.", e);
-        } catch (Exception e) {
-            logger.error("Unexpected error during text extraction: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to extract text from document.", e);
-        }
+        return textExtractionService.extractText(file, file.getOriginalFilename());
     }
 
-    private String generateSummaryWithAI(String content) {
-        try {
-            String truncatedContent = content.length() > AI_CONTEXT_LIMIT
-                    ? content.substring(0, AI_CONTEXT_LIMIT) + "..."
-                    : content;
-
-            String prompt = String.format("""
-                Task: Summarize the following document professionally.
-
-                Instructions:
-                - Write a clear, concise summary in 5-7 sentences.
-                - Focus on the main ideas, key points, and purpose of the document.
-                - Use professional, neutral language.
-
-                Document Content:
-                %s
-                """, truncatedContent);
-
-            String summary = chatClient.prompt()
-                    .user(prompt)
-                    .call()
-                    .content();
-
-            return summary != null ? summary.trim() : "Unable to generate summary.";
+    // Summary, title, keywords and document type in one model call
+    private DocumentAnalysis generateSummaryWithAI(String content, SummaryTier tier, boolean incremental) {
+        return summarizationService.analyze(content, tier, incremental);
+    }
 
-        } catch (Exception e) {
-            logger.error("AI summarization failed: {}", e.getMessage(), e);
-            return "Error: AI summarization failed.";
+    private static String describeMetadata(DocumentAnalysis analysis) {
+        if (!analysis.hasMetadata()) {
+            return "";
+        }
+        StringBuilder metadata = new StringBuilder();
+        if (analysis.title() != null) {
+            metadata.append("Title: ").append(analysis.title()).append('\n');
+        }
+        if (analysis.documentType() != null) {
+            metadata.append("Type: ").append(analysis.documentType()).append('\n');
+        }
+        if (!analysis.keywords().isEmpty()) {
+            metadata.append("Keywords: ").append(String.join(", ", analysis.keywords())).append('\n');
         }
+        return metadata.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.techie.springai.rag.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * GraalVM native-image hints for the document processing stack. Tika finds
+ * its parsers and detectors through ServiceLoader and instantiates them
+ * reflectively, and Tika, POI and PDFBox load MIME tables, XML schemas and
+ * fonts from the classpath, none of which native-image can discover by
+ * static analysis.
+ */
+@Configuration
+@ImportRuntimeHints(DocumentProcessingRuntimeHints.class)
+public class DocumentProcessingRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> REFLECTIVE_TYPES = List.of(
+            "org.apache.tika.parser.AutoDetectParser",
+            "org.apache.tika.parser.DefaultParser",
+            "org.apache.tika.detect.DefaultDetector",
+            "org.apache.tika.mime.MimeTypes",
+            "org.apache.tika.parser.pdf.PDFParser",
+            "org.apache.tika.parser.microsoft.OfficeParser",
+            "org.apache.tika.parser.microsoft.ooxml.OOXMLParser",
+            "org.apache.tika.parser.txt.TXTParser",
+            "org.apache.tika.parser.ocr.TesseractOCRParser",
+            "org.apache.tika.parser.ocr.TesseractOCRConfig",
+            "org.apache.tika.parser.pdf.PDFParserConfig",
+            "org.apache.tika.detect.zip.DefaultZipContainerDetector",
+            "org.apache.tika.detect.ole.MiscOLEDetector",
+            "org.apache.poi.openxml4j.opc.OPCPackage",
+            "org.apache.poi.xwpf.usermodel.XWPFDocument",
+            "org.apache.poi.ooxml.POIXMLDocument",
+            "org.apache.xmlbeans.impl.schema.SchemaTypeSystemImpl",
+            "org.apache.pdfbox.pdmodel.PDDocument");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        hints.resources()
+                // Tika service registrations, MIME database and parser defaults
+                .registerPattern("META-INF/services/org.apache.tika.*")
+                .registerPattern("org/apache/tika/mime/*.xml")
+                .registerPattern("org/apache/tika/parser/**/*.properties")
+                .registerPattern("org/apache/tika/parser/**/*.xml")
+                // POI OOXML schemas (XMLBeans)
+                .registerPattern("org/apache/poi/schemas/**")
+                .registerPattern("schemaorg_apache_xmlbeans/**")
+                // PDFBox fonts, glyph lists and CMaps
+                .registerPattern("org/apache/pdfbox/resources/**")
+                .registerPattern("org/apache/fontbox/**");
+    }
+}
@@ -0,0 +1,23 @@
+package com.techie.springai.rag.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Bounded scheduler for the blocking steps of the streaming summary path
+     * (Tika extraction, JPA). Keeps them off request and event-loop threads
+     * and caps how many run at once.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${summary.stream.blocking-threads:16}") int threads,
+                                       @Value("${summary.stream.blocking-queue:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "summary-blocking");
+    }
+}
@@ -0,0 +1,23 @@
+package com.techie.springai.rag.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Writes sampled spans as OTLP JSON to the application log, for local
+     * analysis without running a collector. Picked up by Spring Boot's
+     * OpenTelemetry auto-configuration alongside any OTLP exporter.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.export.log", havingValue = "true")
+    public SpanExporter otlpJsonLoggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,90 @@
+package com.techie.springai.rag.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Cached LLM summary of one content-defined chunk of extracted text, keyed
+ * by the chunk's SHA-256 and the model that produced it. Lets a new version
+ * of a document reuse the summaries of sections that did not change.
+ */
+@Entity
+@Table(name = "chunk_summaries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"chunk_hash", "model"}))
+public class ChunkSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chunk_hash", length = 64, nullable = false)
+    private String chunkHash;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String summaryText;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public ChunkSummary() {
+    }
+
+    public ChunkSummary(String chunkHash, String model, String summaryText) {
+        this.chunkHash = chunkHash;
+        this.model = model;
+        this.summaryText = summaryText;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getChunkHash() {
+        return chunkHash;
+    }
+
+    public void setChunkHash(String chunkHash) {
+        this.chunkHash = chunkHash;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getSummaryText() {
+        return summaryText;
+    }
+
+    public void setSummaryText(String summaryText) {
+        this.summaryText = summaryText;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.techie.springai.rag.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * A named, expiring lock row so periodic housekeeping runs on one node at a
+ * time. A node that dies simply stops renewing and the lock lapses.
+ */
+@Entity
+@Table(name = "cluster_locks")
+public class ClusterLock implements Persistable<String> {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Always INSERT new locks (never merge), so two nodes racing to create one cannot both win
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public ClusterLock() {
+    }
+
+    public ClusterLock(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -39,6 +39,22 @@ public class Document {
     @Column(name = "upload_date")
     private LocalDateTime uploadDate = LocalDateTime.now();
     
+    // Version tracking: each re-upload of the same report points at the version it replaces
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_document_id")
+    private Document parent;
+
+    @Column(nullable = false)
+    private Integer version = 1;
+
+    // SHA-256 of the extracted text, used to detect unchanged re-uploads
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // MinHash signature of the extracted text, used to find near-duplicate uploads
+    @Column(name = "text_signature", length = 512)
+    private byte[] textSignature;
+    
     @OneToOne(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private Summary summary;
 
@@ -112,6 +128,38 @@ public class Document {
         this.uploadDate = uploadDate;
     }
 
+    public Document getParent() {
+        return parent;
+    }
+
+    public void setParent(Document parent) {
+        this.parent = parent;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public byte[] getTextSignature() {
+        return textSignature;
+    }
+
+    public void setTextSignature(byte[] textSignature) {
+        this.textSignature = textSignature;
+    }
+
     public Summary getSummary() {
         return summary;
     }
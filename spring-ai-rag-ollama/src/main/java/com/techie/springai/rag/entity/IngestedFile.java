@@ -0,0 +1,157 @@
+package com.techie.springai.rag.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Checkpoint of a file picked up from the watch folder. A file is ingested
+ * again only when its size or modification time differs from the recorded
+ * one, so restarts and rescans don't redo work.
+ */
+@Entity
+@Table(name = "ingested_files")
+public class IngestedFile {
+
+    public enum Status {
+        // Summary job submitted
+        QUEUED,
+        // Nothing to summarize (no text, unchanged content)
+        SKIPPED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 of the absolute path; paths are too long for a unique index
+    @Column(name = "path_hash", nullable = false, unique = true, length = 64)
+    private String pathHash;
+
+    @Column(nullable = false, length = 1024)
+    private String path;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "modified_millis", nullable = false)
+    private long modifiedMillis;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "ingested_at", nullable = false)
+    private LocalDateTime ingestedAt;
+
+    // Constructors
+    public IngestedFile() {
+    }
+
+    public IngestedFile(String pathHash, String path) {
+        this.pathHash = pathHash;
+        this.path = path;
+    }
+
+    public boolean matches(long fileSize, long modifiedMillis) {
+        return this.fileSize == fileSize && this.modifiedMillis == modifiedMillis;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPathHash() {
+        return pathHash;
+    }
+
+    public void setPathHash(String pathHash) {
+        this.pathHash = pathHash;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public long getModifiedMillis() {
+        return modifiedMillis;
+    }
+
+    public void setModifiedMillis(long modifiedMillis) {
+        this.modifiedMillis = modifiedMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(Long documentId) {
+        this.documentId = documentId;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getIngestedAt() {
+        return ingestedAt;
+    }
+
+    public void setIngestedAt(LocalDateTime ingestedAt) {
+        this.ingestedAt = ingestedAt;
+    }
+}
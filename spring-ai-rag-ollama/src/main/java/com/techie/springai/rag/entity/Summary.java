@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -15,6 +17,14 @@ import jakarta.persistence.Table;
 @Entity
 @Table(name = "summaries")
 public class Summary {
+
+    public enum Status {
+        COMPLETE,
+        // Placeholder until a queued job writes the summary
+        PENDING,
+        // Summarization failed; the text is the error shown to the user
+        FAILED
+    }
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +36,25 @@ public class Summary {
     
     @Column(columnDefinition = "TEXT", nullable = false)
     private String summaryText;
+
+    // Metadata extracted in the same model call as the summary (may be null)
+    @Column(length = 255)
+    private String title;
+
+    // Comma-separated
+    @Column(length = 500)
+    private String keywords;
+
+    @Column(name = "document_type", length = 50)
+    private String documentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.COMPLETE;
+
+    // Text moved to summary_archive; summaryText is empty while set
+    @Column(nullable = false)
+    private boolean archived;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -65,6 +94,46 @@ public class Summary {
         this.summaryText = summaryText;
     }
 
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(String keywords) {
+        this.keywords = keywords;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public void setDocumentType(String documentType) {
+        this.documentType = documentType;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
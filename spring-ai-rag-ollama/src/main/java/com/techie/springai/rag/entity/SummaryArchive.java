@@ -0,0 +1,68 @@
+package com.techie.springai.rag.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Text of a summary moved out of the hot summaries table by
+ * SummaryArchiveService. Rows are written in bulk with native SQL; the
+ * entity exists for reads.
+ */
+@Entity
+@Table(name = "summary_archive")
+public class SummaryArchive {
+
+    @Id
+    @Column(name = "summary_id")
+    private Long summaryId;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Column(name = "summary_text", columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String summaryText;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public SummaryArchive() {
+    }
+
+    // Getters and Setters
+    public Long getSummaryId() {
+        return summaryId;
+    }
+
+    public void setSummaryId(Long summaryId) {
+        this.summaryId = summaryId;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(Long documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getSummaryText() {
+        return summaryText;
+    }
+
+    public void setSummaryText(String summaryText) {
+        this.summaryText = summaryText;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
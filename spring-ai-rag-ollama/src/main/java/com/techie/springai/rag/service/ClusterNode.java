@@ -0,0 +1,69 @@
+package com.techie.springai.rag.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.techie.springai.rag.Repository.ClusterLockRepository;
+import com.techie.springai.rag.entity.ClusterLock;
+
+/**
+ * Identity of this instance among the replicas sharing the database, and
+ * expiring named locks for work only one of them should do at a time.
+ */
+@Component
+public class ClusterNode {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final ClusterLockRepository clusterLockRepository;
+    private final String id;
+
+    public ClusterNode(ClusterLockRepository clusterLockRepository,
+                       @Value("${cluster.node-id:}") String nodeId) {
+        this.clusterLockRepository = clusterLockRepository;
+        this.id = !nodeId.isBlank() ? nodeId : hostname() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        logger.info("🖧 Cluster node ID: {}", id);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Acquires or renews the named lock for ttl. Returns false while another
+     * node holds an unexpired lock of that name.
+     */
+    public boolean tryLock(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (clusterLockRepository.claim(name, id, now, expiresAt) == 1) {
+            return true;
+        }
+        if (clusterLockRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            clusterLockRepository.saveAndFlush(new ClusterLock(name, id, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lock first
+            return false;
+        }
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.techie.springai.rag.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.techie.springai.rag.entity.Summary;
+
+/**
+ * Summary plus the metadata the model extracts in the same call, and whether
+ * it is a finished summary at all. Metadata is absent when the tier does not
+ * produce it or the output could only be parsed as prose; pending and failed
+ * analyses carry the placeholder or error text shown in place of a summary.
+ */
+public record DocumentAnalysis(String summary, String title, List<String> keywords, String documentType,
+                               Summary.Status status) {
+
+    public DocumentAnalysis {
+        summary = summary != null ? summary.trim() : null;
+        title = blankToNull(title);
+        documentType = documentType != null && !documentType.isBlank()
+                ? documentType.trim().toLowerCase(Locale.ROOT).replace(' ', '-')
+                : null;
+        // Models sometimes return "a, b, c" as a single keyword
+        keywords = keywords == null ? List.of() : keywords.stream()
+                .filter(Objects::nonNull)
+                .flatMap(k -> Arrays.stream(k.split(",")))
+                .map(String::trim)
+                .filter(k -> !k.isEmpty())
+                .distinct()
+                .toList();
+        status = status != null ? status : Summary.Status.COMPLETE;
+    }
+
+    public static DocumentAnalysis of(String summary) {
+        return new DocumentAnalysis(summary, null, List.of(), null, Summary.Status.COMPLETE);
+    }
+
+    public static DocumentAnalysis pending() {
+        return new DocumentAnalysis(DocumentService.PENDING_SUMMARY, null, List.of(), null, Summary.Status.PENDING);
+    }
+
+    public static DocumentAnalysis failed(String message) {
+        return new DocumentAnalysis(message, null, List.of(), null, Summary.Status.FAILED);
+    }
+
+    public static DocumentAnalysis from(Summary summary) {
+        String keywords = summary.getKeywords();
+        return new DocumentAnalysis(summary.getSummaryText(), summary.getTitle(),
+                keywords != null ? List.of(keywords) : List.of(), summary.getDocumentType(), summary.getStatus());
+    }
+
+    public boolean isComplete() {
+        return status == Summary.Status.COMPLETE;
+    }
+
+    public boolean hasMetadata() {
+        return title != null || documentType != null || !keywords.isEmpty();
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+}
@@ -8,6 +8,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,28 +24,62 @@ import com.techie.springai.rag.entity.Document;
 import com.techie.springai.rag.entity.Summary;
 import com.techie.springai.rag.entity.User;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 @Service
 public class DocumentService {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
 
+    // Placeholder stored until a queued summary job fills in the real text
+    public static final String PENDING_SUMMARY = "Summary pending.";
+
     @Value("${file.upload-dir:./uploads}")
     private String uploadDir;
 
     private final DocumentRepository documentRepository;
     private final SummaryRepository summaryRepository;
     private final UserRepository userRepository;
+    private final ObservationRegistry observationRegistry;
+    private final SummaryReadService summaryReadService;
 
     public DocumentService(DocumentRepository documentRepository, 
                           SummaryRepository summaryRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ObservationRegistry observationRegistry,
+                          SummaryReadService summaryReadService) {
         this.documentRepository = documentRepository;
         this.summaryRepository = summaryRepository;
         this.userRepository = userRepository;
+        this.observationRegistry = observationRegistry;
+        this.summaryReadService = summaryReadService;
     }
 
     @Transactional
     public Document saveDocument(MultipartFile file, String summaryText, Long userId) throws IOException {
+        return saveDocument(file, summaryText, userId, null, null);
+    }
+
+    @Transactional
+    public Document saveDocument(MultipartFile file, String summaryText, Long userId,
+                                 Document parent, String contentHash) throws IOException {
+        return saveDocument(file, DocumentAnalysis.of(summaryText), userId, parent, contentHash);
+    }
+
+    @Transactional
+    public Document saveDocument(MultipartFile file, DocumentAnalysis analysis, Long userId,
+                                 Document parent, String contentHash) throws IOException {
+        return Observation.createNotStarted("document.save", observationRegistry)
+                .contextualName("save-document")
+                .lowCardinalityKeyValue("document.versioned", String.valueOf(parent != null))
+                .highCardinalityKeyValue("document.bytes", String.valueOf(file.getSize()))
+                .observeChecked(() -> doSaveDocument(file, analysis, userId, parent, contentHash));
+    }
+
+    private Document doSaveDocument(MultipartFile file, DocumentAnalysis analysis, Long userId,
+                                    Document parent, String contentHash) throws IOException {
+        String summaryText = analysis.summary();
         logger.info("===========================================");
         logger.info("💾 SAVING DOCUMENT");
         logger.info("   File: {}", file.getOriginalFilename());
@@ -73,6 +108,12 @@ public class DocumentService {
         document.setFileType(file.getContentType());
         document.setFileSize(file.getSize());
         document.setUploadDate(LocalDateTime.now());
+        document.setContentHash(contentHash);
+        if (parent != null) {
+            document.setParent(parent);
+            document.setVersion(parent.getVersion() + 1);
+            logger.info("🔁 New version {} of document ID: {}", document.getVersion(), parent.getId());
+        }
 
         // Save document to database
         Document savedDocument = documentRepository.save(document);
@@ -81,8 +122,7 @@ public class DocumentService {
         // Create and save summary
         Summary summary = new Summary();
         summary.setDocument(savedDocument);
-        summary.setSummaryText(summaryText);
-        summary.setCreatedAt(LocalDateTime.now());
+        applyAnalysis(summary, analysis);
         Summary savedSummary = summaryRepository.save(summary);
         
         logger.info("✅ Summary saved to DB - ID: {}", savedSummary.getId());
@@ -91,6 +131,57 @@ public class DocumentService {
         return savedDocument;
     }
 
+    /**
+     * Replaces the summary of an existing document, in the database and in
+     * its summary file. Used when a queued job finishes. Returns false if the
+     * document has been deleted in the meantime.
+     */
+    @Transactional
+    public boolean updateSummary(Long documentId, DocumentAnalysis analysis) throws IOException {
+        Summary summary = summaryRepository.findByDocumentId(documentId).orElse(null);
+        if (summary == null) {
+            logger.warn("Summary of document ID: {} not found, document was deleted", documentId);
+            return false;
+        }
+        applyAnalysis(summary, analysis);
+        summaryRepository.save(summary);
+        summaryReadService.evict(documentId);
+
+        Document document = summary.getDocument();
+        saveSummaryToFile(document.getFilename(), analysis.summary(), document.getUser().getId());
+        logger.info("✅ Summary updated for document ID: {}", documentId);
+        return true;
+    }
+
+    private static void applyAnalysis(Summary summary, DocumentAnalysis analysis) {
+        summary.setSummaryText(analysis.summary());
+        summary.setTitle(truncate(analysis.title(), 255));
+        summary.setKeywords(analysis.keywords().isEmpty() ? null : truncate(String.join(", ", analysis.keywords()), 500));
+        summary.setDocumentType(truncate(analysis.documentType(), 50));
+        summary.setStatus(analysis.status());
+        summary.setCreatedAt(LocalDateTime.now());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * True when the document has a finished summary that can be reused as is,
+     * i.e. not a pending placeholder or an error message, and not archived
+     * (its text then lives in summary_archive and the entity holds none).
+     */
+    public static boolean hasUsableSummary(Document document) {
+        return hasFinishedSummary(document) && !document.getSummary().isArchived();
+    }
+
+    /**
+     * True when the document has a finished summary, archived or not.
+     */
+    public static boolean hasFinishedSummary(Document document) {
+        return document.getSummary() != null && document.getSummary().getStatus() == Summary.Status.COMPLETE;
+    }
+
     private String saveFileToDisk(MultipartFile file, Long userId) throws IOException {
         // Create user-specific directory
         Path uploadPath = Paths.get(uploadDir, String.valueOf(userId));
@@ -123,17 +214,7 @@ public class DocumentService {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate summary filename: original_name_summary.txt
-        String baseFilename;
-        int dotIndex = originalFilename.lastIndexOf('.');
-        if (dotIndex > 0) {
-            baseFilename = originalFilename.substring(0, dotIndex);
-        } else {
-            baseFilename = originalFilename;
-        }
-        
-        String summaryFilename = baseFilename + "_summary.txt";
-        Path summaryPath = uploadPath.resolve(summaryFilename);
+        Path summaryPath = uploadPath.resolve(summaryFilenameFor(originalFilename));
 
         // Write summary to file
         Files.write(summaryPath, summaryText.getBytes(StandardCharsets.UTF_8));
@@ -143,6 +224,25 @@ public class DocumentService {
         return summaryPath.toString();
     }
 
+    // Generate summary filename: original_name_summary.txt
+    public static String summaryFilenameFor(String originalFilename) {
+        int dotIndex = originalFilename.lastIndexOf('.');
+        String baseFilename = dotIndex > 0 ? originalFilename.substring(0, dotIndex) : originalFilename;
+        return baseFilename + "_summary.txt";
+    }
+
+    /**
+     * Finds the document a new upload supersedes: the explicit parent if one is
+     * given (must belong to the user), otherwise the user's latest upload with
+     * the same filename.
+     */
+    public Optional<Document> findPreviousVersion(Long userId, String filename, Long parentId) {
+        if (parentId != null) {
+            return documentRepository.findByIdAndUserId(parentId, userId);
+        }
+        return documentRepository.findFirstByUserIdAndFilenameOrderByUploadDateDesc(userId, filename);
+    }
+
     public List<Document> getUserDocuments(Long userId) {
         logger.info("📚 Fetching documents for user ID: {}", userId);
         List<Document> documents = documentRepository.findByUserIdOrderByUploadDateDesc(userId);
@@ -0,0 +1,176 @@
+package com.techie.springai.rag.service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Streams files from disk with single-range HTTP Range support.
+ *
+ * When the servlet container supports sendfile (embedded Tomcat with the NIO
+ * connector does), the transfer is handed to the container and goes from the
+ * page cache to the socket without passing through the heap. Otherwise the
+ * file is copied with FileChannel.transferTo onto the response channel.
+ */
+@Service
+public class FileDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDownloadService.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Counter sendfileBytes;
+    private final Counter channelBytes;
+
+    public FileDownloadService(MeterRegistry meterRegistry) {
+        this.sendfileBytes = Counter.builder("download.bytes")
+                .description("Bytes served by file downloads")
+                .baseUnit("bytes")
+                .tag("mode", "sendfile")
+                .register(meterRegistry);
+        this.channelBytes = Counter.builder("download.bytes")
+                .description("Bytes served by file downloads")
+                .baseUnit("bytes")
+                .tag("mode", "channel")
+                .register(meterRegistry);
+    }
+
+    public void send(Path file, String downloadName, String contentType,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "File not found");
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(downloadName, StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+
+        long start = 0;
+        long end = length - 1;
+
+        // If-Range: only honour Range when the client's copy is still current
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            sendfileBytes.increment(count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            channelBytes.increment(count - remaining);
+        } catch (IOException e) {
+            // Usually the client aborting a resumable download
+            logger.debug("Download of {} interrupted: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range. Returns {start, end} for a satisfiable
+     * range, an empty array when the header should be ignored (multiple
+     * ranges, another unit, or an invalid range such as 5-3) and null when
+     * the range is unsatisfiable (starts past the end, or an empty suffix).
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (!last.isEmpty() && Long.parseLong(last) < start) {
+                    // Invalid rather than unsatisfiable (RFC 9110): serve the whole file
+                    return new long[0];
+                }
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.techie.springai.rag.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control for the heap held by documents in flight.
+ *
+ * Before a document is parsed, its caller reserves an estimate of the memory
+ * the pipeline will hold for it: parser buffers proportional to the file
+ * size, plus the extracted text, which exists several times over (content
+ * handler buffer, trimmed String, truncated copy, prompt). Once the text is
+ * known the reservation is shrunk to what is still held. When the budget is
+ * exhausted callers wait in arrival order for up to max-wait, then get a
+ * MemoryBudgetExceededException.
+ *
+ * A single document larger than the whole budget is admitted alone rather
+ * than rejected forever.
+ */
+@Service
+public class MemoryBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryBudget.class);
+
+    // Strings are UTF-16 in the worst case (non-Latin-1 text)
+    private static final int BYTES_PER_CHAR = 2;
+    private static final int TEXT_COPIES = 3;
+    private static final long BASE_OVERHEAD = 1024 * 1024;
+
+    private final boolean enabled;
+    private final long limit;
+    private final Duration maxWait;
+    private final double parseFactor;
+    private final double textCharsPerByte;
+    private final Deque<Object> waiting = new ArrayDeque<>();
+    private final Counter rejected;
+    private final Timer waitTimer;
+    private long reserved;
+
+    public MemoryBudget(MeterRegistry meterRegistry,
+                        @Value("${memory.budget.enabled:true}") boolean enabled,
+                        @Value("${memory.budget.max-bytes:0}") long maxBytes,
+                        @Value("${memory.budget.heap-fraction:0.5}") double heapFraction,
+                        @Value("${memory.budget.max-wait:PT30S}") Duration maxWait,
+                        @Value("${memory.budget.parse-factor:2.0}") double parseFactor,
+                        @Value("${memory.budget.text-chars-per-byte:1.0}") double textCharsPerByte) {
+        this.enabled = enabled;
+        this.limit = maxBytes > 0 ? maxBytes : (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        this.maxWait = maxWait;
+        this.parseFactor = parseFactor;
+        this.textCharsPerByte = textCharsPerByte;
+        this.rejected = Counter.builder("memory.budget.rejected")
+                .description("Documents turned away because the memory budget stayed exhausted")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("memory.budget.wait")
+                .description("Time spent waiting for memory budget before parsing")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Gauge.builder("memory.budget.reserved", this, MemoryBudget::reserved)
+                .description("Estimated heap reserved by documents in flight")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("memory.budget.limit", this, b -> b.limit)
+                .description("Heap available to documents in flight")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("memory.budget.heap.used", memory, m -> m.getHeapMemoryUsage().getUsed())
+                .description("Actual heap in use, to compare against the reserved estimate")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("memory.budget.waiting", this, MemoryBudget::waitingCount)
+                .description("Documents waiting for memory budget")
+                .register(meterRegistry);
+
+        logger.info("🧮 Memory budget for documents in flight: {} MB", limit / (1024 * 1024));
+    }
+
+    /**
+     * Estimate for an upload that hasn't been parsed yet.
+     */
+    public long estimateUpload(long fileSize) {
+        long chars = Math.min(TextExtractionService.MAX_CONTENT_LENGTH, (long) (fileSize * textCharsPerByte));
+        return (long) (fileSize * parseFactor) + estimateText(chars);
+    }
+
+    /**
+     * Estimate for extracted text waiting to be summarized.
+     */
+    public long estimateText(long chars) {
+        return chars * BYTES_PER_CHAR * TEXT_COPIES + BASE_OVERHEAD;
+    }
+
+    public Reservation reserve(long bytes) {
+        return reserve(bytes, maxWait);
+    }
+
+    /**
+     * Blocks until the bytes fit in the budget and every earlier caller has
+     * been admitted, or maxWait has passed.
+     */
+    public Reservation reserve(long bytes, Duration maxWait) {
+        if (!enabled) {
+            return new Reservation(0);
+        }
+        long amount = Math.min(Math.max(bytes, 0), limit);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxWait.toNanos();
+        Object ticket = new Object();
+
+        synchronized (this) {
+            waiting.addLast(ticket);
+            try {
+                while (waiting.peekFirst() != ticket || reserved + amount > limit) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        logger.warn("⛔ Memory budget exhausted ({} of {} MB reserved), rejecting {} MB",
+                                reserved / (1024 * 1024), limit / (1024 * 1024), amount / (1024 * 1024));
+                        throw new MemoryBudgetExceededException(
+                                "The server is busy processing other documents. Please try again shortly.");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                reserved += amount;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MemoryBudgetExceededException("Interrupted while waiting for memory.");
+            } finally {
+                waiting.remove(ticket);
+                // The next caller in line may fit now
+                notifyAll();
+            }
+        }
+
+        waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return new Reservation(amount);
+    }
+
+    private synchronized void release(long bytes) {
+        reserved -= bytes;
+        notifyAll();
+    }
+
+    private synchronized long reserved() {
+        return reserved;
+    }
+
+    private synchronized int waitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Held for as long as the document's data is on the heap. Closing it
+     * more than once is harmless.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private long bytes;
+        private boolean released;
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Gives back the part of the reservation no longer needed, e.g. the
+         * parser's share once extraction has finished.
+         */
+        public synchronized void shrinkTo(long newBytes) {
+            if (released || newBytes >= bytes) {
+                return;
+            }
+            long freed = bytes - Math.max(newBytes, 0);
+            bytes -= freed;
+            release(freed);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                release(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.techie.springai.rag.service;
+
+/**
+ * Thrown when a document can't get its share of the global memory budget
+ * within the configured wait. Mapped to HTTP 503 by the controllers.
+ */
+public class MemoryBudgetExceededException extends RuntimeException {
+
+    public MemoryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.techie.springai.rag.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the summary models resident in Ollama. Models are loaded once the
+ * application is ready and then touched periodically. The interval should be
+ * shorter than summary.ollama.keep-alive so Ollama never unloads a model
+ * between real requests.
+ */
+@Service
+public class ModelWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelWarmupService.class);
+
+    private final SummarizationService summarizationService;
+    private final boolean enabled;
+
+    public ModelWarmupService(SummarizationService summarizationService,
+                              @Value("${summary.warmup.enabled:true}") boolean enabled) {
+        this.summarizationService = summarizationService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        // Model loads can take a while; don't hold up the ready event
+        CompletableFuture.runAsync(summarizationService::warmUp)
+                .exceptionally(e -> {
+                    logger.warn("Startup warm-up failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${summary.warmup.interval:PT20M}",
+               initialDelayString = "${summary.warmup.interval:PT20M}")
+    public void refresh() {
+        if (enabled) {
+            summarizationService.warmUp();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.techie.springai.rag.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.techie.springai.rag.Repository.DocumentRepository;
+import com.techie.springai.rag.Repository.DocumentSignatureView;
+import com.techie.springai.rag.Repository.SummaryRepository;
+import com.techie.springai.rag.Repository.SummaryView;
+import com.techie.springai.rag.entity.Summary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Near-duplicate detection over extracted text with MinHash LSH.
+ *
+ * Each document is reduced to a 128-value MinHash signature of its 5-word
+ * shingles; the share of equal positions in two signatures estimates the
+ * Jaccard similarity of their shingle sets. Signatures are split into 32
+ * bands of 4 rows, and documents that agree on any whole band land in the
+ * same bucket, so only candidates above roughly 0.4 similarity are compared.
+ *
+ * The index holds the most recent max-entries signatures in memory, evicting
+ * the earliest indexed first. It is scoped per user: a match never hands one
+ * user a summary of another user's document. Each node has its own index:
+ * documents it summarizes are added right away, and the whole index is
+ * rebuilt from the documents table at startup and every refresh-interval,
+ * which is when documents summarized on other nodes (cluster mode) show up.
+ */
+@Service
+public class NearDuplicateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateService.class);
+
+    private static final int SHINGLE_WORDS = 5;
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(SIGNATURE_SIZE).toArray();
+
+    private final DocumentRepository documentRepository;
+    private final SummaryRepository summaryRepository;
+    private final boolean enabled;
+    private final double threshold;
+    private final double partialThreshold;
+    private final int maxEntries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, long[]> buckets = new HashMap<>();
+    private final Counter reused;
+    private final Counter partial;
+
+    public record NearDuplicate(Long documentId, double similarity, String summaryText) {
+
+        /** True when the match is close enough to reuse its summary outright. */
+        public boolean reusable() {
+            return summaryText != null;
+        }
+    }
+
+    private record Entry(long userId, int[] signature) {
+    }
+
+    public NearDuplicateService(DocumentRepository documentRepository,
+                                SummaryRepository summaryRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${dedup.near.enabled:true}") boolean enabled,
+                                @Value("${dedup.near.threshold:0.9}") double threshold,
+                                @Value("${dedup.near.partial-threshold:0.5}") double partialThreshold,
+                                @Value("${dedup.near.max-entries:50000}") int maxEntries) {
+        this.documentRepository = documentRepository;
+        this.summaryRepository = summaryRepository;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.partialThreshold = partialThreshold;
+        this.maxEntries = maxEntries;
+        this.reused = Counter.builder("dedup.near.matches")
+                .description("Uploads matched to an earlier near-duplicate")
+                .tag("result", "reused")
+                .register(meterRegistry);
+        this.partial = Counter.builder("dedup.near.matches")
+                .description("Uploads matched to an earlier near-duplicate")
+                .tag("result", "partial")
+                .register(meterRegistry);
+        Gauge.builder("dedup.near.index.size", entries, Map::size)
+                .description("Signatures held in the near-duplicate index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        if (enabled) {
+            logger.info("🔎 Near-duplicate index loaded with {} documents", rebuild());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dedup.near.refresh-interval:PT15M}",
+               initialDelayString = "${dedup.near.refresh-interval:PT15M}")
+    public void refreshIndex() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            logger.debug("Near-duplicate index refreshed with {} documents", rebuild());
+        } catch (Exception e) {
+            logger.warn("Near-duplicate index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the index of the latest max-entries documents off the lock and
+     * swaps it in. A document registered meanwhile is in the table, so at
+     * worst it is missing until the next refresh.
+     */
+    private int rebuild() {
+        List<DocumentSignatureView> views = documentRepository.findSignatureViews(PageRequest.of(0, maxEntries));
+        LinkedHashMap<Long, Entry> loadedEntries = new LinkedHashMap<>();
+        Map<Long, long[]> loadedBuckets = new HashMap<>();
+        // Oldest first, so eviction order matches upload order
+        for (int i = views.size() - 1; i >= 0; i--) {
+            DocumentSignatureView view = views.get(i);
+            int[] signature = decode(view.signature());
+            if (signature != null) {
+                add(loadedEntries, loadedBuckets, view.documentId(), view.userId(), signature);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            entries.putAll(loadedEntries);
+            buckets.clear();
+            buckets.putAll(loadedBuckets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loadedEntries.size();
+    }
+
+    /**
+     * MinHash signature of the text's word shingles.
+     */
+    public int[] signature(String text) {
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        int shingles = Math.max(1, words.length - SHINGLE_WORDS + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0xcbf29ce484222325L;
+            for (int w = start; w < Math.min(words.length, start + SHINGLE_WORDS); w++) {
+                shingle = fnv(shingle, words[w]);
+            }
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int h = (int) mix(shingle ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the user's most similar earlier document at or above the
+     * partial threshold. The match carries its summary only when it also
+     * reaches the reuse threshold and the summary is still available.
+     */
+    public Optional<NearDuplicate> find(Long userId, int[] signature) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Long bestId = null;
+        double best = 0;
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                long[] ids = buckets.get(bandKey(userId, band, signature));
+                if (ids != null) {
+                    for (long id : ids) {
+                        candidates.add(id);
+                    }
+                }
+            }
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry == null || entry.userId() != userId) {
+                    continue;
+                }
+                double similarity = similarity(signature, entry.signature());
+                if (similarity > best) {
+                    best = similarity;
+                    bestId = id;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (bestId == null || best < partialThreshold) {
+            return Optional.empty();
+        }
+
+        String summaryText = null;
+        if (best >= threshold) {
+            SummaryView view = summaryRepository.findViewByDocumentId(bestId).orElse(null);
+            if (view == null) {
+                // Document deleted since it was indexed
+                remove(bestId);
+                return Optional.empty();
+            }
+            if (userId.equals(view.userId()) && view.status() == Summary.Status.COMPLETE) {
+                summaryText = view.summaryText();
+            }
+        }
+
+        if (summaryText != null) {
+            reused.increment();
+        } else {
+            partial.increment();
+        }
+        logger.info("🔎 Near-duplicate of document ID: {} (similarity {})",
+                bestId, String.format("%.2f", best));
+        return Optional.of(new NearDuplicate(bestId, best, summaryText));
+    }
+
+    /**
+     * Persists the signature with the document and adds it to the index.
+     */
+    @Transactional
+    public void register(Long documentId, Long userId, int[] signature) {
+        if (!enabled) {
+            return;
+        }
+        documentRepository.updateTextSignature(documentId, encode(signature));
+        index(documentId, userId, signature);
+    }
+
+    private void index(Long documentId, long userId, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            // A re-indexed document moves to the newest position and leaves its old buckets
+            removeLocked(documentId);
+            add(entries, buckets, documentId, userId, signature);
+            while (entries.size() > maxEntries) {
+                Long eldest = entries.keySet().iterator().next();
+                removeLocked(eldest);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(Map<Long, Entry> entries, Map<Long, long[]> buckets,
+                            Long documentId, long userId, int[] signature) {
+        entries.put(documentId, new Entry(userId, signature));
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(userId, band, signature);
+            long[] ids = buckets.get(key);
+            long[] grown = ids == null ? new long[1] : Arrays.copyOf(ids, ids.length + 1);
+            grown[grown.length - 1] = documentId;
+            buckets.put(key, grown);
+        }
+    }
+
+    private void remove(Long documentId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long documentId) {
+        Entry entry = entries.remove(documentId);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(entry.userId(), band, entry.signature());
+            long[] ids = buckets.get(key);
+            if (ids == null) {
+                continue;
+            }
+            long[] remaining = Arrays.stream(ids).filter(id -> id != documentId).toArray();
+            if (remaining.length == 0) {
+                buckets.remove(key);
+            } else {
+                buckets.put(key, remaining);
+            }
+        }
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    private static long bandKey(long userId, int band, int[] signature) {
+        long key = mix(userId * 31 + band);
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key ^ signature[row]);
+        }
+        return key;
+    }
+
+    private static long fnv(long hash, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Word separator, so "ab c" and "a bc" differ
+        return (hash ^ ' ') * 0x100000001b3L;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_SIZE * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    private static int[] decode(byte[] bytes) {
+        if (bytes == null || bytes.length != SIGNATURE_SIZE * Integer.BYTES) {
+            return null;
+        }
+        int[] signature = new int[SIGNATURE_SIZE];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+}
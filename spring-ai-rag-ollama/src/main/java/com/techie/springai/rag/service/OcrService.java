@@ -0,0 +1,258 @@
+package com.techie.springai.rag.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.ocr.TesseractOCRParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional OCR stage for scanned PDFs using Tesseract through Tika's
+ * TesseractOCRParser (Tesseract must be installed locally and on the PATH).
+ *
+ * Pages are rendered one at a time and OCR'd in parallel on a dedicated pool,
+ * with a bounded number of rendered pages in flight. Results are cached per
+ * page keyed by the hash of the rendered image, and each document is held to
+ * a page-count and wall-clock budget.
+ */
+@Service
+public class OcrService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrService.class);
+
+    private final int dpi;
+    private final int maxPages;
+    private final Duration timeBudget;
+    private final int threads;
+    private final ExecutorService ocrPool;
+    private final Map<String, String> pageCache;
+    private final Timer pageTimer;
+    private final Timer queueTimer;
+    private final Counter pagesOcrd;
+    private final Counter pagesCached;
+    private final Counter pagesSkipped;
+    private final PageRecognizer recognizer;
+
+    public OcrService(MeterRegistry meterRegistry,
+                      @Value("${ocr.enabled:false}") boolean enabled,
+                      @Value("${ocr.language:eng}") String language,
+                      @Value("${ocr.dpi:300}") int dpi,
+                      @Value("${ocr.max-pages:100}") int maxPages,
+                      @Value("${ocr.time-budget:120s}") Duration timeBudget,
+                      @Value("${ocr.threads:0}") int threads,
+                      @Value("${ocr.cache-size:2000}") int cacheSize) {
+        this(meterRegistry, enabled ? tesseract(language) : null, dpi, maxPages, timeBudget, threads, cacheSize);
+    }
+
+    OcrService(MeterRegistry meterRegistry, PageRecognizer recognizer, int dpi, int maxPages,
+               Duration timeBudget, int threads, int cacheSize) {
+        this.recognizer = recognizer;
+        this.dpi = dpi;
+        this.maxPages = maxPages;
+        this.timeBudget = timeBudget;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger workerId = new AtomicInteger();
+        this.ocrPool = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "ocr-worker-" + workerId.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        this.pageCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        this.pageTimer = Timer.builder("ocr.page.duration")
+                .description("Tesseract time per page")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.queueTimer = Timer.builder("ocr.queue.wait")
+                .description("Time a rendered page waits for an OCR worker")
+                .register(meterRegistry);
+        this.pagesOcrd = pageCounter(meterRegistry, "ocr");
+        this.pagesCached = pageCounter(meterRegistry, "cache");
+        this.pagesSkipped = pageCounter(meterRegistry, "skipped");
+
+        logger.info("🔎 OCR {} (threads={}, maxPages={}, budget={})",
+                recognizer != null ? "enabled" : "disabled", this.threads, maxPages, timeBudget);
+    }
+
+    public boolean isAvailable() {
+        return recognizer != null;
+    }
+
+    public String extractText(InputStreamSource source, String filename) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        Semaphore inFlight = new Semaphore(threads * 2);
+        List<CompletableFuture<String>> pages = new ArrayList<>();
+
+        try (InputStream is = source.getInputStream();
+             PDDocument pdf = PDDocument.load(is)) {
+
+            int pageCount = pdf.getNumberOfPages();
+            int budgetedPages = Math.min(pageCount, maxPages);
+            if (budgetedPages < pageCount) {
+                logger.warn("⚠️ {} has {} pages, OCR limited to the first {}", filename, pageCount, budgetedPages);
+                pagesSkipped.increment(pageCount - budgetedPages);
+            }
+
+            PDFRenderer renderer = new PDFRenderer(pdf);
+            for (int i = 0; i < budgetedPages; i++) {
+                if (System.nanoTime() > deadline) {
+                    logger.warn("⏱️ OCR time budget of {} exhausted for {} after {} pages", timeBudget, filename, i);
+                    pagesSkipped.increment(budgetedPages - i);
+                    break;
+                }
+
+                // Rendering shares the PDDocument, so it stays on this thread
+                BufferedImage image = renderer.renderImageWithDPI(i, dpi, ImageType.GRAY);
+                byte[] png = toPng(image);
+                String key = ContentHasher.sha256(png);
+
+                String cached = pageCache.get(key);
+                if (cached != null) {
+                    pagesCached.increment();
+                    pages.add(CompletableFuture.completedFuture(cached));
+                    continue;
+                }
+
+                inFlight.acquire();
+                long queuedAt = System.nanoTime();
+                pages.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        if (System.nanoTime() > deadline) {
+                            pagesSkipped.increment();
+                            return "";
+                        }
+                        String text = pageTimer.recordCallable(() -> recognizer.recognize(png));
+                        pageCache.put(key, text);
+                        pagesOcrd.increment();
+                        return text;
+                    } catch (Exception e) {
+                        logger.warn("OCR failed on a page of {}: {}", filename, e.getMessage());
+                        return "";
+                    } finally {
+                        inFlight.release();
+                    }
+                }, ocrPool));
+            }
+
+            StringBuilder text = new StringBuilder();
+            for (CompletableFuture<String> page : pages) {
+                String pageText = page.join();
+                if (!pageText.isBlank()) {
+                    text.append(pageText.trim()).append("\n\n");
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+            logger.info("🔎 OCR of {}: {} pages in {} s ({} pages/s)", filename, pages.size(),
+                    String.format("%.1f", seconds), String.format("%.2f", pages.size() / Math.max(seconds, 0.001)));
+            return text.toString();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("OCR interrupted.", e);
+        } catch (Exception e) {
+            logger.error("OCR failed for {}: {}", filename, e.getMessage(), e);
+            throw new RuntimeException("Failed to OCR document.", e);
+        }
+    }
+
+    private static PageRecognizer tesseract(String language) {
+        TesseractOCRParser parser = initTesseract();
+        return parser != null ? png -> ocrPage(parser, language, png) : null;
+    }
+
+    private static String ocrPage(TesseractOCRParser tesseract, String language, byte[] png) throws Exception {
+        BodyContentHandler handler = new BodyContentHandler(TextExtractionService.MAX_CONTENT_LENGTH);
+        Metadata metadata = new Metadata();
+        metadata.set(Metadata.CONTENT_TYPE, "image/png");
+        ParseContext context = new ParseContext();
+        TesseractOCRConfig config = new TesseractOCRConfig();
+        config.setLanguage(language);
+        context.set(TesseractOCRConfig.class, config);
+
+        try (InputStream is = new ByteArrayInputStream(png)) {
+            tesseract.parse(is, handler, metadata, context);
+        }
+        return handler.toString();
+    }
+
+    private static TesseractOCRParser initTesseract() {
+        try {
+            TesseractOCRParser parser = new TesseractOCRParser();
+            parser.initialize(Collections.emptyMap());
+            if (parser.getSupportedTypes(new ParseContext()).isEmpty()) {
+                logger.warn("⚠️ ocr.enabled=true but Tesseract was not found on the PATH");
+                return null;
+            }
+            return parser;
+        } catch (Exception e) {
+            logger.warn("⚠️ Unable to initialize Tesseract: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] toPng(BufferedImage image) throws java.io.IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static Counter pageCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ocr.pages")
+                .description("OCR pages by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ocrPool.shutdownNow();
+    }
+
+    /**
+     * Turns one rendered page into text; Tesseract outside of tests.
+     */
+    @FunctionalInterface
+    interface PageRecognizer {
+        String recognize(byte[] png) throws Exception;
+    }
+}
@@ -0,0 +1,134 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Does what the foreign keys dropped by V3 (partitioned documents) used to do
+ * in the database, for rows deleted outside the application:
+ * - documents of deleted users are deleted (was users ON DELETE CASCADE)
+ * - versions of a deleted document lose their parent (was ON DELETE SET NULL)
+ * - summaries, archived summary text and summary jobs of deleted documents
+ *   are deleted (were documents ON DELETE CASCADE)
+ * Files of the deleted documents are reclaimed by StorageLifecycleService.
+ *
+ * Each step handles at most max-batches of batch-size keys, one transaction
+ * per batch, and documents go first so their dependents are found in the
+ * same run.
+ */
+@Service
+public class OrphanCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanCleanupService.class);
+
+    private static final String LOCK_NAME = "orphan-cleanup";
+
+    private final SummaryReadService summaryReadService;
+    private final ClusterNode clusterNode;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration lockTtl;
+    private final Counter rowsCleaned;
+
+    public OrphanCleanupService(SummaryReadService summaryReadService,
+                                ClusterNode clusterNode,
+                                TransactionTemplate transactionTemplate,
+                                JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${orphan.cleanup.enabled:true}") boolean enabled,
+                                @Value("${orphan.cleanup.batch-size:1000}") int batchSize,
+                                @Value("${orphan.cleanup.max-batches-per-run:100}") int maxBatches,
+                                @Value("${orphan.cleanup.lock-ttl:PT1H}") Duration lockTtl) {
+        this.summaryReadService = summaryReadService;
+        this.clusterNode = clusterNode;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.lockTtl = lockTtl;
+        this.rowsCleaned = Counter.builder("orphan.cleanup.rows")
+                .description("Rows deleted or unlinked because what they referenced was deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${orphan.cleanup.cron:0 0 4 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (!clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+            logger.debug("Orphan cleanup skipped, another node holds the lock");
+            return;
+        }
+
+        int total = 0;
+        try {
+            total += clean("SELECT d.id FROM documents d LEFT JOIN users u ON u.id = d.user_id "
+                         + "WHERE u.id IS NULL",
+                    "DELETE FROM documents WHERE id IN (%s)", false);
+            total += clean("SELECT d.id FROM documents d LEFT JOIN documents p ON p.id = d.parent_document_id "
+                         + "WHERE d.parent_document_id IS NOT NULL AND p.id IS NULL",
+                    "UPDATE documents SET parent_document_id = NULL WHERE id IN (%s)", false);
+            total += clean("SELECT DISTINCT s.document_id FROM summaries s LEFT JOIN documents d ON d.id = s.document_id "
+                         + "WHERE d.id IS NULL",
+                    "DELETE FROM summaries WHERE document_id IN (%s)", true);
+            total += clean("SELECT DISTINCT a.document_id FROM summary_archive a LEFT JOIN documents d ON d.id = a.document_id "
+                         + "WHERE d.id IS NULL",
+                    "DELETE FROM summary_archive WHERE document_id IN (%s)", false);
+            total += clean("SELECT DISTINCT j.document_id FROM summary_jobs j LEFT JOIN documents d ON d.id = j.document_id "
+                         + "WHERE d.id IS NULL",
+                    "DELETE FROM summary_jobs WHERE document_id IN (%s)", false);
+        } catch (DataAccessException e) {
+            logger.warn("Orphan cleanup stopped after {} rows: {}", total, e.getMessage());
+        }
+
+        if (total > 0) {
+            rowsCleaned.increment(total);
+            logger.info("🧹 Cleaned up {} rows left behind by deleted users or documents", total);
+        }
+    }
+
+    /**
+     * Runs the statement for batches of the keys the query finds. The
+     * statement has one %s, for the key placeholders.
+     */
+    private int clean(String orphanKeys, String statement, boolean evictSummaries) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> keys = jdbcTemplate.queryForList(orphanKeys + " LIMIT " + batchSize, Long.class);
+            if (keys.isEmpty()) {
+                break;
+            }
+            String placeholders = String.join(",", Collections.nCopies(keys.size(), "?"));
+            Integer rows = transactionTemplate.execute(status -> {
+                int updated = jdbcTemplate.update(String.format(statement, placeholders), keys.toArray());
+                if (evictSummaries) {
+                    keys.forEach(summaryReadService::evict);
+                }
+                return updated;
+            });
+            total += rows;
+            if (keys.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,69 @@
+package com.techie.springai.rag.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * A file on disk presented as an upload, so watch-folder ingestion can go
+ * through the same DocumentService and job pipeline as HTTP uploads. The
+ * content is streamed from the file on each read, never held in memory.
+ */
+final class PathMultipartFile implements MultipartFile {
+
+    private final Path path;
+    private final String contentType;
+    private final long size;
+
+    PathMultipartFile(Path path, long size) throws IOException {
+        this.path = path;
+        this.size = size;
+        String probed = Files.probeContentType(path);
+        this.contentType = probed != null ? probed : "application/octet-stream";
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return path.getFileName().toString();
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
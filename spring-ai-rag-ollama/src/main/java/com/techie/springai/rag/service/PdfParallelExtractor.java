@@ -0,0 +1,205 @@
+package com.techie.springai.rag.service;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Page-parallel text extraction for large PDFs.
+ *
+ * Files under min-bytes are left to Tika without being copied or opened,
+ * since they can't have enough pages to be worth it. Larger ones are copied
+ * to a temp file and opened once to count pages; that document then extracts
+ * the first partition while the pool's workers take the rest, each with its
+ * own PDDocument (PDFBox documents are not thread-safe) backed by temp-file
+ * scratch space. Workers strip their partition in small page ranges so only
+ * one range of text is being built at a time, with Tika's default (content
+ * stream) text order. Partitions are joined in page order.
+ */
+@Service
+public class PdfParallelExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfParallelExtractor.class);
+
+    private final boolean enabled;
+    private final int minPages;
+    private final long minBytes;
+    private final int rangeSize;
+    private final ForkJoinPool pool;
+
+    public PdfParallelExtractor(@Value("${pdf.parallel.enabled:true}") boolean enabled,
+                                @Value("${pdf.parallel.min-pages:50}") int minPages,
+                                @Value("${pdf.parallel.min-bytes:262144}") long minBytes,
+                                @Value("${pdf.parallel.range-size:25}") int rangeSize,
+                                @Value("${pdf.parallel.threads:0}") int threads) {
+        this.enabled = enabled;
+        this.minPages = minPages;
+        this.minBytes = minBytes;
+        this.rangeSize = Math.max(1, rangeSize);
+        this.pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the extracted text, or null when the PDF is below the size or
+     * page threshold or cannot be opened by PDFBox (callers then fall back to Tika).
+     */
+    public String extract(InputStreamSource source, String filename) {
+        long size = sizeOf(source);
+        if (size >= 0 && size < minBytes) {
+            return null;
+        }
+
+        Path tempFile = null;
+        PDDocument firstPdf = null;
+        try {
+            tempFile = Files.createTempFile("pdf-extract-", ".pdf");
+            try (InputStream is = source.getInputStream()) {
+                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            File pdfFile = tempFile.toFile();
+            firstPdf = open(pdfFile);
+            int pageCount = firstPdf.getNumberOfPages();
+            if (pageCount < minPages) {
+                return null;
+            }
+
+            long start = System.nanoTime();
+            int partitions = Math.min(pool.getParallelism(), (pageCount + rangeSize - 1) / rangeSize);
+            int pagesPerPartition = (pageCount + partitions - 1) / partitions;
+
+            // Partition 0 runs on this thread with the document already open
+            List<Future<String>> results = new ArrayList<>(partitions);
+            for (int p = 1; p < partitions; p++) {
+                int first = p * pagesPerPartition + 1;
+                int last = Math.min(pageCount, first + pagesPerPartition - 1);
+                if (first > last) {
+                    break;
+                }
+                results.add(pool.submit(() -> {
+                    try (PDDocument pdf = open(pdfFile)) {
+                        return extractPartition(pdf, first, last);
+                    }
+                }));
+            }
+
+            StringBuilder text = new StringBuilder();
+            boolean complete = append(text, extractPartition(firstPdf, 1, Math.min(pageCount, pagesPerPartition)), filename);
+            for (Future<String> result : results) {
+                if (!complete) {
+                    break;
+                }
+                complete = append(text, result.get(), filename);
+            }
+            // Only partitions after a truncation are still running
+            results.forEach(result -> result.cancel(true));
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+            logger.info("📑 Parallel PDF extraction of {}: {} pages, {} partitions in {} s ({} pages/s)",
+                    filename, pageCount, results.size() + 1, String.format("%.2f", seconds),
+                    String.format("%.1f", pageCount / Math.max(seconds, 0.001)));
+
+            String trimmed = text.toString().trim();
+            return trimmed.isEmpty() ? null : trimmed;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("PDF extraction interrupted.", e);
+        } catch (Exception e) {
+            logger.warn("Parallel PDF extraction failed for {}, falling back to Tika: {}", filename, e.getMessage());
+            return null;
+        } finally {
+            if (firstPdf != null) {
+                try {
+                    firstPdf.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close PDF {}", filename);
+                }
+            }
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (Exception e) {
+                    logger.warn("Could not delete temp file {}", tempFile);
+                }
+            }
+        }
+    }
+
+    private String extractPartition(PDDocument pdf, int firstPage, int lastPage) throws Exception {
+        StringBuilder text = new StringBuilder();
+        PDFTextStripper stripper = new PDFTextStripper();
+        for (int start = firstPage; start <= lastPage; start += rangeSize) {
+            stripper.setStartPage(start);
+            stripper.setEndPage(Math.min(lastPage, start + rangeSize - 1));
+            text.append(stripper.getText(pdf));
+            if (text.length() > TextExtractionService.MAX_CONTENT_LENGTH) {
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends up to the content limit; false once the text had to be truncated.
+     */
+    private static boolean append(StringBuilder text, String part, String filename) {
+        int room = TextExtractionService.MAX_CONTENT_LENGTH - text.length();
+        if (part.length() > room) {
+            text.append(part, 0, room);
+            logger.warn("⚠️ {} exceeds {} characters, text truncated", filename, TextExtractionService.MAX_CONTENT_LENGTH);
+            return false;
+        }
+        text.append(part);
+        return true;
+    }
+
+    /**
+     * Size of the upload without reading it, or -1 when the source can't tell.
+     */
+    private static long sizeOf(InputStreamSource source) {
+        try {
+            if (source instanceof MultipartFile file) {
+                return file.getSize();
+            }
+            if (source instanceof Resource resource) {
+                return resource.contentLength();
+            }
+        } catch (Exception e) {
+            // Unknown size, decide by page count
+        }
+        return -1;
+    }
+
+    private static PDDocument open(File pdfFile) throws Exception {
+        return PDDocument.load(pdfFile, MemoryUsageSetting.setupTempFileOnly());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.techie.springai.rag.service;
+
+import java.util.Locale;
+
+/**
+ * Scheduling classes for LLM work. Interactive requests get a larger share
+ * of the summarization workers than bulk uploads.
+ */
+public enum PriorityClass {
+
+    INTERACTIVE,
+    BULK;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static PriorityClass fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return INTERACTIVE;
+        }
+        for (PriorityClass priority : values()) {
+            if (priority.key().equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return priority;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.techie.springai.rag.service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versioned prompt templates for summarization.
+ *
+ * From version 2 on, the fixed instructions go in the system message and the
+ * user message carries only the document. Every request for a given kind
+ * therefore starts with the same token prefix, and Ollama can reuse its KV
+ * cache for it instead of re-evaluating the instructions each time. Version 1
+ * keeps the original single user message for comparison.
+ */
+@Component
+public class PromptTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptTemplateRegistry.class);
+
+    private static final String CONTENT = "{content}";
+
+    public enum Kind {
+        FAST,
+        BALANCED,
+        SECTION,
+        ANALYZE,
+        ANALYZE_SECTIONS
+    }
+
+    public record SummaryPrompt(Kind kind, int version, String system, String user) {
+
+        public String id() {
+            return kind.name().toLowerCase(Locale.ROOT) + "-v" + version;
+        }
+
+        public String renderUser(String content) {
+            return user.replace(CONTENT, content);
+        }
+
+        /**
+         * Appends output format instructions. They are constant, so for split
+         * templates they extend the cacheable system prefix.
+         */
+        public SummaryPrompt withFormat(String format) {
+            return system.isBlank()
+                    ? new SummaryPrompt(kind, version, system, user + "\n" + format)
+                    : new SummaryPrompt(kind, version, system + "\n" + format, user);
+        }
+    }
+
+    private final Map<Kind, SummaryPrompt> active = new EnumMap<>(Kind.class);
+
+    public PromptTemplateRegistry(@Value("${summary.prompt.version:2}") int version) {
+        Map<Kind, SummaryPrompt> templates = version == 1 ? legacyTemplates() : splitTemplates();
+        active.putAll(templates);
+        logger.info("📝 Using summary prompt templates v{}", version == 1 ? 1 : 2);
+    }
+
+    public SummaryPrompt get(Kind kind) {
+        return active.get(kind);
+    }
+
+    private static Map<Kind, SummaryPrompt> splitTemplates() {
+        Map<Kind, SummaryPrompt> templates = new EnumMap<>(Kind.class);
+        templates.put(Kind.FAST, new SummaryPrompt(Kind.FAST, 2, """
+                You summarize documents briefly.
+
+                Instructions:
+                - Write a clear summary in 2-3 sentences.
+                - Focus only on the main purpose and the most important point.
+                """, "Document Content:\n" + CONTENT));
+        templates.put(Kind.BALANCED, new SummaryPrompt(Kind.BALANCED, 2, """
+                You summarize documents professionally.
+
+                Instructions:
+                - Write a clear, concise summary in 5-7 sentences.
+                - Focus on the main ideas, key points, and purpose of the document.
+                - Use professional, neutral language.
+                """, "Document Content:\n" + CONTENT));
+        templates.put(Kind.SECTION, new SummaryPrompt(Kind.SECTION, 2, """
+                You summarize one section of a larger document.
+
+                Instructions:
+                - Write 2-4 sentences capturing the key facts and arguments of this section.
+                - Do not add an introduction or conclusion.
+                """, "Section Content:\n" + CONTENT));
+        templates.put(Kind.ANALYZE, new SummaryPrompt(Kind.ANALYZE, 2, """
+                You analyze documents professionally.
+
+                Instructions:
+                - summary: a clear, concise summary in 5-7 sentences covering the main ideas,
+                  key points, and purpose of the document, in professional, neutral language.
+                - title: a short descriptive title.
+                - keywords: the 5-8 most important keywords or key phrases.
+                - documentType: the kind of document.
+                """, "Document Content:\n" + CONTENT));
+        templates.put(Kind.ANALYZE_SECTIONS, new SummaryPrompt(Kind.ANALYZE_SECTIONS, 2, """
+                You analyze a document from the summaries of its sections.
+
+                Instructions:
+                - summary: combine the section summaries into one clear, concise summary of the
+                  whole document in 5-7 sentences, in professional, neutral language.
+                - title: a short descriptive title.
+                - keywords: the 5-8 most important keywords or key phrases.
+                - documentType: the kind of document.
+                """, "Section Summaries:\n" + CONTENT));
+        return templates;
+    }
+
+    private static Map<Kind, SummaryPrompt> legacyTemplates() {
+        Map<Kind, SummaryPrompt> templates = new EnumMap<>(Kind.class);
+        templates.put(Kind.FAST, new SummaryPrompt(Kind.FAST, 1, "", """
+                Task: Summarize the following document briefly.
+
+                Instructions:
+                - Write a clear summary in 2-3 sentences.
+                - Focus only on the main purpose and the most important point.
+
+                Document Content:
+                {content}
+                """));
+        templates.put(Kind.BALANCED, new SummaryPrompt(Kind.BALANCED, 1, "", """
+                Task: Summarize the following document professionally.
+
+                Instructions:
+                - Write a clear, concise summary in 5-7 sentences.
+                - Focus on the main ideas, key points, and purpose of the document.
+                - Use professional, neutral language.
+
+                Document Content:
+                {content}
+                """));
+        templates.put(Kind.SECTION, new SummaryPrompt(Kind.SECTION, 1, "", """
+                Task: Summarize one section of a larger document.
+
+                Instructions:
+                - Write 2-4 sentences capturing the key facts and arguments of this section.
+                - Do not add an introduction or conclusion.
+
+                Section Content:
+                {content}
+                """));
+        templates.put(Kind.ANALYZE, new SummaryPrompt(Kind.ANALYZE, 1, "", """
+                Task: Analyze the following document professionally.
+
+                Instructions:
+                - summary: a clear, concise summary in 5-7 sentences covering the main ideas,
+                  key points, and purpose of the document, in professional, neutral language.
+                - title: a short descriptive title.
+                - keywords: the 5-8 most important keywords or key phrases.
+                - documentType: the kind of document.
+
+                Document Content:
+                {content}
+                """));
+        templates.put(Kind.ANALYZE_SECTIONS, new SummaryPrompt(Kind.ANALYZE_SECTIONS, 1, "", """
+                Task: Analyze a document from the following summaries of its sections.
+
+                Instructions:
+                - summary: combine the section summaries into one clear, concise summary of the
+                  whole document in 5-7 sentences, in professional, neutral language.
+                - title: a short descriptive title.
+                - keywords: the 5-8 most important keywords or key phrases.
+                - documentType: the kind of document.
+
+                Section Summaries:
+                {content}
+                """));
+        return templates;
+    }
+}
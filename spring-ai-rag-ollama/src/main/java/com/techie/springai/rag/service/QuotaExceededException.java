@@ -0,0 +1,12 @@
+package com.techie.springai.rag.service;
+
+/**
+ * Thrown when a user has exhausted a quota or has too much work queued.
+ * Mapped to HTTP 429 by the controllers.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
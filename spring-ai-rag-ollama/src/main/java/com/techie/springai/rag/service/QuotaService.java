@@ -0,0 +1,145 @@
+package com.techie.springai.rag.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-user hourly token-bucket quotas for uploaded bytes and LLM tokens.
+ * Buckets refill continuously, so a user who spent the full hour's budget
+ * regains capacity gradually instead of all at once.
+ *
+ * Quota is charged before the work starts and refunded by the caller if the
+ * work fails or is rejected. A bucket that has refilled completely is the
+ * same as a new one, so full buckets are dropped periodically.
+ */
+@Service
+public class QuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaService.class);
+
+    private static final double NANOS_PER_HOUR = 3_600_000_000_000d;
+
+    /** Rough chars-per-token ratio used to estimate prompt size before calling the model. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final long bytesPerHour;
+    private final long llmTokensPerHour;
+    private final Map<Long, UserBuckets> buckets = new ConcurrentHashMap<>();
+
+    public QuotaService(@Value("${quota.bytes-per-hour:524288000}") long bytesPerHour,
+                        @Value("${quota.llm-tokens-per-hour:2000000}") long llmTokensPerHour) {
+        this.bytesPerHour = bytesPerHour;
+        this.llmTokensPerHour = llmTokensPerHour;
+        logger.info("🪣 Quotas: {} bytes/hour, {} LLM tokens/hour per user", bytesPerHour, llmTokensPerHour);
+    }
+
+    public void consumeBytes(Long userId, long bytes) {
+        if (!consume(userId, userBuckets -> userBuckets.bytes, bytes, bytesPerHour)) {
+            throw new QuotaExceededException("Upload quota exceeded. Please try again later.");
+        }
+    }
+
+    public void consumeLlmTokens(Long userId, long tokens) {
+        if (!consume(userId, userBuckets -> userBuckets.llmTokens, tokens, llmTokensPerHour)) {
+            throw new QuotaExceededException("LLM token quota exceeded. Please try again later.");
+        }
+    }
+
+    public void refundBytes(Long userId, long bytes) {
+        refund(userId, userBuckets -> userBuckets.bytes, bytes, bytesPerHour);
+    }
+
+    public void refundLlmTokens(Long userId, long tokens) {
+        refund(userId, userBuckets -> userBuckets.llmTokens, tokens, llmTokensPerHour);
+    }
+
+    /**
+     * Drops the buckets of users whose quotas have refilled completely.
+     */
+    @Scheduled(fixedDelayString = "${quota.evict-interval:PT10M}")
+    public void evictFullBuckets() {
+        for (Long userId : buckets.keySet()) {
+            buckets.computeIfPresent(userId, (id, userBuckets) ->
+                    userBuckets.bytes.isFull(bytesPerHour) && userBuckets.llmTokens.isFull(llmTokensPerHour)
+                            ? null
+                            : userBuckets);
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    // Inside compute, so eviction can't drop the bucket between lookup and charge
+    private boolean consume(Long userId, Function<UserBuckets, TokenBucket> resource, long amount, long capacityPerHour) {
+        boolean[] consumed = new boolean[1];
+        buckets.compute(userId, (id, existing) -> {
+            UserBuckets userBuckets = existing != null ? existing : new UserBuckets();
+            consumed[0] = resource.apply(userBuckets).tryConsume(amount, capacityPerHour);
+            return userBuckets;
+        });
+        return consumed[0];
+    }
+
+    // An evicted bucket is full already, so there is nothing to refund to
+    private void refund(Long userId, Function<UserBuckets, TokenBucket> resource, long amount, long capacityPerHour) {
+        if (amount <= 0) {
+            return;
+        }
+        buckets.computeIfPresent(userId, (id, userBuckets) -> {
+            resource.apply(userBuckets).refund(amount, capacityPerHour);
+            return userBuckets;
+        });
+    }
+
+    public static long estimateTokens(int chars) {
+        return Math.max(1, chars / CHARS_PER_TOKEN);
+    }
+
+    private static class UserBuckets {
+        final TokenBucket bytes = new TokenBucket();
+        final TokenBucket llmTokens = new TokenBucket();
+    }
+
+    private static class TokenBucket {
+        private double available = -1;
+        private long lastRefill = System.nanoTime();
+
+        synchronized boolean tryConsume(long amount, long capacityPerHour) {
+            refill(capacityPerHour);
+            if (amount > available) {
+                return false;
+            }
+            available -= amount;
+            return true;
+        }
+
+        synchronized void refund(long amount, long capacityPerHour) {
+            refill(capacityPerHour);
+            available = Math.min(capacityPerHour, available + amount);
+        }
+
+        synchronized boolean isFull(long capacityPerHour) {
+            refill(capacityPerHour);
+            return available >= capacityPerHour;
+        }
+
+        private void refill(long capacityPerHour) {
+            long now = System.nanoTime();
+            if (available < 0) {
+                available = capacityPerHour;
+            } else {
+                available = Math.min(capacityPerHour,
+                        available + (now - lastRefill) * (capacityPerHour / NANOS_PER_HOUR));
+            }
+            lastRefill = now;
+        }
+    }
+}
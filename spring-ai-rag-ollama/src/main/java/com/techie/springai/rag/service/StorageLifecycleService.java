@@ -0,0 +1,363 @@
+package com.techie.springai.rag.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.techie.springai.rag.Repository.DocumentFileView;
+import com.techie.springai.rag.Repository.DocumentRepository;
+import com.techie.springai.rag.Repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Background lifecycle management for the uploads directory.
+ *
+ * Each run reconciles a bounded slice of the per-user directories against the
+ * documents table, resuming at the directory and file where the last run
+ * stopped:
+ * - files no document references (deleted users/documents) are reclaimed
+ * - originals untouched for cold-after days are gzipped in place (X -> X.gz)
+ * Only reclaimed or frozen files count toward max-files-per-run; files that
+ * need nothing are just checked, so large directories are covered in full.
+ *
+ * Cold files are rehydrated transparently by resolveForRead. Compression is
+ * throttled to max-bytes-per-second, and files younger than the grace period
+ * are never touched, so uploads still being written or committed are safe.
+ */
+@Service
+public class StorageLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageLifecycleService.class);
+
+    private static final String COLD_SUFFIX = ".gz";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LOCK_NAME = "storage-lifecycle";
+    private static final int REHYDRATION_STRIPES = 64;
+
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final ClusterNode clusterNode;
+    private final boolean enabled;
+    private final boolean dryRun;
+    private final Duration orphanGrace;
+    private final Duration coldAfter;
+    private final Duration lockTtl;
+    private final int maxFilesPerRun;
+    private final long maxBytesPerSecond;
+    private final Path uploadRoot;
+    // Striped rather than per path: a lock that is never removed can't be swapped out under a waiter
+    private final Object[] rehydrationLocks = new Object[REHYDRATION_STRIPES];
+    private final Counter orphansReclaimed;
+    private final Counter filesFrozen;
+    private final Counter filesRehydrated;
+    // Where the next run resumes: after cursorFile in cursorDir, or after cursorDir if cursorFile is empty
+    private String cursorDir = "";
+    private String cursorFile = "";
+
+    public StorageLifecycleService(DocumentRepository documentRepository,
+                                   UserRepository userRepository,
+                                   ClusterNode clusterNode,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${file.upload-dir:./uploads}") String uploadDir,
+                                   @Value("${storage.lifecycle.enabled:true}") boolean enabled,
+                                   @Value("${storage.lifecycle.dry-run:false}") boolean dryRun,
+                                   @Value("${storage.lifecycle.orphan-grace:24h}") Duration orphanGrace,
+                                   @Value("${storage.lifecycle.cold-after:30d}") Duration coldAfter,
+                                   @Value("${storage.lifecycle.max-files-per-run:500}") int maxFilesPerRun,
+                                   @Value("${storage.lifecycle.max-bytes-per-second:10485760}") long maxBytesPerSecond,
+                                   @Value("${storage.lifecycle.lock-ttl:PT30M}") Duration lockTtl) {
+        this.documentRepository = documentRepository;
+        this.userRepository = userRepository;
+        this.clusterNode = clusterNode;
+        this.uploadRoot = Paths.get(uploadDir);
+        this.enabled = enabled;
+        this.dryRun = dryRun;
+        this.orphanGrace = orphanGrace;
+        this.coldAfter = coldAfter;
+        this.maxFilesPerRun = maxFilesPerRun;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.lockTtl = lockTtl;
+        this.orphansReclaimed = lifecycleCounter(meterRegistry, "reclaimed");
+        this.filesFrozen = lifecycleCounter(meterRegistry, "frozen");
+        this.filesRehydrated = lifecycleCounter(meterRegistry, "rehydrated");
+        for (int i = 0; i < REHYDRATION_STRIPES; i++) {
+            rehydrationLocks[i] = new Object();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.lifecycle.interval:PT10M}",
+               initialDelayString = "${storage.lifecycle.initial-delay:PT5M}")
+    public void run() {
+        if (!enabled || !Files.isDirectory(uploadRoot)) {
+            return;
+        }
+        // With shared storage only one node may reconcile at a time
+        if (!clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+            logger.debug("Storage lifecycle run skipped, another node holds the lock");
+            return;
+        }
+
+        int budget = maxFilesPerRun;
+        try {
+            List<Path> userDirs = listUserDirs();
+            // Resume in the directory the last run stopped in, or after the last one finished; wrap around when done
+            boolean resumeInside = !cursorFile.isEmpty();
+            List<Path> ordered = new ArrayList<>();
+            userDirs.stream().filter(d -> isAtOrAfterCursor(d, resumeInside)).forEach(ordered::add);
+            userDirs.stream().filter(d -> !isAtOrAfterCursor(d, resumeInside)).forEach(ordered::add);
+
+            for (Path userDir : ordered) {
+                if (budget <= 0) {
+                    break;
+                }
+                String dirName = userDir.getFileName().toString();
+                String afterFile = dirName.equals(cursorDir) ? cursorFile : "";
+                DirResult result = reconcileUserDir(userDir, afterFile, budget);
+                budget -= result.acted();
+                cursorDir = dirName;
+                cursorFile = result.stoppedAfter() != null ? result.stoppedAfter() : "";
+            }
+        } catch (Exception e) {
+            logger.error("Storage lifecycle run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a readable path for a stored original, decompressing it from the
+     * cold tier first if needed. Threads of this node rehydrate a file one at
+     * a time; each rehydration writes its own temp file, so nodes sharing the
+     * storage can't interleave writes either.
+     */
+    public Path resolveForRead(String filePath) throws IOException {
+        Path original = Paths.get(filePath);
+        if (Files.exists(original)) {
+            return original;
+        }
+        Path cold = coldPathFor(original);
+        if (!Files.exists(cold)) {
+            return original;
+        }
+
+        synchronized (rehydrationLocks[Math.floorMod(original.hashCode(), REHYDRATION_STRIPES)]) {
+            if (Files.exists(original)) {
+                return original;
+            }
+            Path part = Files.createTempFile(original.getParent(), original.getFileName() + ".", PART_SUFFIX);
+            try {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(cold), BUFFER_SIZE)) {
+                    Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(part, original, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Another node rehydrated it first and removed the cold copy
+                if (Files.exists(original)) {
+                    return original;
+                }
+                throw e;
+            } finally {
+                Files.deleteIfExists(part);
+            }
+            Files.setLastModifiedTime(original, FileTime.from(Instant.now()));
+            Files.deleteIfExists(cold);
+            filesRehydrated.increment();
+            logger.info("🔥 Rehydrated {} from cold tier", original);
+            return original;
+        }
+    }
+
+    private boolean isAtOrAfterCursor(Path userDir, boolean inclusive) {
+        int cmp = userDir.getFileName().toString().compareTo(cursorDir);
+        return inclusive ? cmp >= 0 : cmp > 0;
+    }
+
+    /**
+     * Checks the directory's files in name order, starting after afterFile.
+     * Stops once budget files have been acted on and reports the last one,
+     * so the next run continues from there.
+     */
+    private DirResult reconcileUserDir(Path userDir, String afterFile, int budget) throws IOException {
+        Long userId = parseUserId(userDir);
+        if (userId == null) {
+            return new DirResult(0, null);
+        }
+
+        Set<Path> referenced = new HashSet<>();
+        boolean userExists = userRepository.existsById(userId);
+        if (userExists) {
+            for (DocumentFileView view : documentRepository.findFileViewsByUserId(userId)) {
+                Path original = Paths.get(view.filePath()).toAbsolutePath().normalize();
+                referenced.add(original);
+                referenced.add(coldPathFor(original));
+                referenced.add(userDir.resolve(DocumentService.summaryFilenameFor(view.filename())).toAbsolutePath().normalize());
+            }
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(userDir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                // Temp files are never referenced; those a crash left behind are reclaimed after the grace period
+                if (name.compareTo(afterFile) > 0 && Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+
+        Instant now = Instant.now();
+        int acted = 0;
+        for (Path file : files) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            Instant lastTouched = max(attrs.lastModifiedTime().toInstant(), attrs.lastAccessTime().toInstant());
+            Path normalized = file.toAbsolutePath().normalize();
+
+            if (!referenced.contains(normalized)) {
+                if (!attrs.lastModifiedTime().toInstant().isBefore(now.minus(orphanGrace))) {
+                    continue;
+                }
+                reclaim(file, attrs.size());
+            } else if (isColdCandidate(file, normalized, referenced)
+                    && lastTouched.isBefore(now.minus(coldAfter))) {
+                freeze(file);
+            } else {
+                continue;
+            }
+
+            if (++acted >= budget) {
+                return new DirResult(acted, file.getFileName().toString());
+            }
+        }
+
+        if (!userExists && !dryRun && isEmpty(userDir)) {
+            Files.deleteIfExists(userDir);
+        }
+        return new DirResult(acted, null);
+    }
+
+    private record DirResult(int acted, String stoppedAfter) {
+    }
+
+    private boolean isColdCandidate(Path file, Path normalized, Set<Path> referenced) {
+        String name = file.getFileName().toString();
+        // Only originals are tiered; summaries are small and already-cold files are skipped
+        return !name.endsWith(COLD_SUFFIX)
+                && !name.endsWith("_summary.txt")
+                && referenced.contains(coldPathFor(normalized));
+    }
+
+    private void reclaim(Path file, long size) throws IOException {
+        if (dryRun) {
+            logger.info("🧹 [dry-run] Would reclaim orphan {} ({} bytes)", file, size);
+            return;
+        }
+        Files.deleteIfExists(file);
+        orphansReclaimed.increment();
+        logger.info("🧹 Reclaimed orphan {} ({} bytes)", file, size);
+    }
+
+    private void freeze(Path file) throws IOException {
+        if (dryRun) {
+            logger.info("🧊 [dry-run] Would move {} to cold tier", file);
+            return;
+        }
+        Path cold = coldPathFor(file);
+        Path part = cold.resolveSibling(cold.getFileName() + PART_SUFFIX);
+
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+            copyThrottled(in, out);
+        }
+        Files.move(part, cold, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(file);
+        filesFrozen.increment();
+        logger.info("🧊 Moved {} to cold tier", file);
+    }
+
+    /**
+     * Copies at no more than maxBytesPerSecond so lifecycle I/O does not
+     * compete with live uploads for disk bandwidth.
+     */
+    private void copyThrottled(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long start = System.nanoTime();
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            copied += read;
+            long expectedNanos = copied * 1_000_000_000L / maxBytesPerSecond;
+            long aheadNanos = expectedNanos - (System.nanoTime() - start);
+            if (aheadNanos > 0) {
+                try {
+                    Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Throttled copy interrupted", e);
+                }
+            }
+        }
+    }
+
+    private List<Path> listUserDirs() throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadRoot, Files::isDirectory)) {
+            stream.forEach(dirs::add);
+        }
+        dirs.sort(null);
+        return dirs;
+    }
+
+    private static Long parseUserId(Path userDir) {
+        try {
+            return Long.valueOf(userDir.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            return !stream.iterator().hasNext();
+        }
+    }
+
+    private static Path coldPathFor(Path original) {
+        return original.resolveSibling(original.getFileName() + COLD_SUFFIX);
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static Counter lifecycleCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("storage.lifecycle.files")
+                .description("Files handled by the storage lifecycle manager")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,629 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.techie.springai.rag.Repository.ChunkSummaryRepository;
+import com.techie.springai.rag.entity.ChunkSummary;
+import com.techie.springai.rag.entity.Summary;
+import com.techie.springai.rag.service.PromptTemplateRegistry.Kind;
+import com.techie.springai.rag.service.PromptTemplateRegistry.SummaryPrompt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Service
+public class SummarizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummarizationService.class);
+
+    private static final BeanOutputConverter<ModelAnalysis> ANALYSIS_CONVERTER =
+            new BeanOutputConverter<>(ModelAnalysis.class);
+
+    private static final ObjectMapper LENIENT_JSON = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    // The summary field of a JSON answer, even if the closing quote was cut off
+    private static final Pattern SUMMARY_FIELD = Pattern.compile("\"summary\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)+)");
+
+    public static final String FAILURE_MESSAGE = "Error: AI summarization failed.";
+    public static final String NO_SUMMARY_MESSAGE = "Unable to generate summary.";
+
+    private final ChatClient chatClient;
+    private final ChunkSummaryRepository chunkSummaryRepository;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final PromptTemplateRegistry prompts;
+    private final Scheduler blockingScheduler;
+    private final String keepAlive;
+    private final double minCacheHitRatio;
+    private final Counter chunkCacheHits;
+    private final Counter chunkCacheMisses;
+    private final Map<SummaryTier, TierSettings> tiers = new EnumMap<>(SummaryTier.class);
+
+    public SummarizationService(ChatClient chatClient,
+                                ChunkSummaryRepository chunkSummaryRepository,
+                                MeterRegistry meterRegistry,
+                                ObservationRegistry observationRegistry,
+                                PromptTemplateRegistry prompts,
+                                Scheduler blockingScheduler,
+                                Environment env) {
+        this.chatClient = chatClient;
+        this.chunkSummaryRepository = chunkSummaryRepository;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.prompts = prompts;
+        this.blockingScheduler = blockingScheduler;
+        this.keepAlive = env.getProperty("summary.ollama.keep-alive", "30m");
+        this.minCacheHitRatio = env.getProperty("summary.incremental.min-cache-hit-ratio", Double.class, 0.8);
+        this.chunkCacheHits = Counter.builder("summary.chunk.cache")
+                .description("Chunk summaries served from cache vs generated")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.chunkCacheMisses = Counter.builder("summary.chunk.cache")
+                .description("Chunk summaries served from cache vs generated")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        String defaultModel = env.getProperty("spring.ai.ollama.chat.model", "phi3");
+        tiers.put(SummaryTier.FAST, TierSettings.from(env, SummaryTier.FAST, defaultModel, 2000, 200, "5s"));
+        tiers.put(SummaryTier.BALANCED, TierSettings.from(env, SummaryTier.BALANCED, defaultModel, 5000, 512, "20s"));
+        tiers.put(SummaryTier.THOROUGH, TierSettings.from(env, SummaryTier.THOROUGH, defaultModel, 5000, 768, "120s"));
+
+        tiers.forEach((tier, settings) -> logger.info("🎚️ Summary tier {} -> model {}, input {} chars, SLO {}",
+                tier.key(), settings.model(), settings.maxInputChars(), settings.slo()));
+    }
+
+    /**
+     * Summary, title, keywords and document type from a single model call
+     * (the final call, for chunked summaries). The fast tier returns only the
+     * summary. Failures come back as a FAILED analysis with the error text.
+     *
+     * @param incremental true when the document is a new version of an earlier
+     *                    upload (or close to one whose chunks are cached);
+     *                    balanced summaries then go through the chunked path
+     */
+    public DocumentAnalysis analyze(String content, SummaryTier tier, boolean incremental) {
+        return Observation.createNotStarted("summary.generate", observationRegistry)
+                .contextualName("generate-summary")
+                .lowCardinalityKeyValue("summary.tier", tier.key())
+                .lowCardinalityKeyValue("summary.incremental", String.valueOf(incremental))
+                .highCardinalityKeyValue("document.chars", String.valueOf(content.length()))
+                .observe(() -> doAnalyze(content, tier, incremental));
+    }
+
+    private DocumentAnalysis doAnalyze(String content, SummaryTier tier, boolean incremental) {
+        TierSettings settings = tiers.get(tier);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+
+        try {
+            DocumentAnalysis analysis = switch (tier) {
+                case FAST -> DocumentAnalysis.of(summarizeFast(content, settings));
+                case BALANCED -> incremental
+                        ? analyzeChunked(planChunks(content, settings), content, settings)
+                        : analyzeWhole(content, settings);
+                case THOROUGH -> analyzeChunked(planChunks(content, settings), content, settings);
+            };
+            return analysis != null && analysis.summary() != null && !analysis.summary().isBlank()
+                    ? analysis
+                    : DocumentAnalysis.failed(NO_SUMMARY_MESSAGE);
+
+        } catch (Exception e) {
+            outcome = "error";
+            logger.error("AI summarization failed (tier {}): {}", tier.key(), e.getMessage(), e);
+            return DocumentAnalysis.failed(FAILURE_MESSAGE);
+
+        } finally {
+            recordDuration(sample, tier, outcome);
+        }
+    }
+
+    /**
+     * Streaming variant: emits the summary token by token as Ollama produces it.
+     * Chunked summaries (thorough, or incremental versions longer than one
+     * chunk) need every section before the final call, so they run on the
+     * shared blocking scheduler and emit the result as a single element.
+     */
+    public Flux<String> summarizeStream(String content, SummaryTier tier, boolean incremental) {
+        if (tier == SummaryTier.THOROUGH) {
+            return streamAnalysis(content, tier, false).subscribeOn(blockingScheduler);
+        }
+        if (incremental && tier == SummaryTier.BALANCED) {
+            TierSettings settings = tiers.get(tier);
+            if (splitIntoChunks(content, settings.maxInputChars(), settings.maxChunks()).size() > 1) {
+                return streamAnalysis(content, tier, true).subscribeOn(blockingScheduler);
+            }
+        }
+        return streamWhole(content, tier);
+    }
+
+    // A failed analysis ends the stream with an error, so it is never saved as a summary
+    private Flux<String> streamAnalysis(String content, SummaryTier tier, boolean incremental) {
+        return Mono.fromCallable(() -> analyze(content, tier, incremental))
+                .flatMap(analysis -> analysis.isComplete()
+                        ? Mono.just(analysis.summary())
+                        : Mono.<String>error(new IllegalStateException("AI summarization failed.")))
+                .flux();
+    }
+
+    private Flux<String> streamWhole(String content, SummaryTier tier) {
+        TierSettings settings = tiers.get(tier);
+        SummaryPrompt prompt = prompts.get(tier == SummaryTier.FAST ? Kind.FAST : Kind.BALANCED);
+        String document = truncate(content, settings.maxInputChars());
+
+        return Flux.defer(() -> {
+            Observation observation = llmObservation(prompt, document, settings, true).start();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean();
+            // Ollama reports token counts on the last chunk
+            AtomicReference<Usage> usage = new AtomicReference<>();
+            return request(prompt, document, settings, false)
+                    .stream()
+                    .chatResponse()
+                    .doOnNext(response -> {
+                        if (response.getMetadata().getUsage() != null) {
+                            usage.set(response.getMetadata().getUsage());
+                        }
+                    })
+                    .map(SummarizationService::text)
+                    .filter(token -> !token.isEmpty())
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(false, true)) {
+                            recordTimeToFirstToken(tier, prompt, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnComplete(() -> recordDuration(sample, tier, "success"))
+                    .doOnError(e -> {
+                        recordDuration(sample, tier, "error");
+                        observation.error(e);
+                    })
+                    .doFinally(signal -> {
+                        recordUsage(observation, usage.get());
+                        observation.stop();
+                    })
+                    // Spring AI's own chat client span becomes a child of this one
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Loads every configured tier model into Ollama and evaluates the shared
+     * system prefix, so the first real request does not pay for the model load
+     * and the keep-alive window is renewed.
+     */
+    public void warmUp() {
+        SummaryPrompt prompt = prompts.get(Kind.BALANCED);
+        tiers.values().stream()
+                .map(TierSettings::model)
+                .distinct()
+                .forEach(model -> {
+                    long start = System.nanoTime();
+                    try {
+                        ChatClient.ChatClientRequestSpec request = chatClient.prompt();
+                        if (!prompt.system().isBlank()) {
+                            request = request.system(prompt.system());
+                        }
+                        request.user("Reply with OK.")
+                                .options(OllamaOptions.builder()
+                                        .model(model)
+                                        .numPredict(1)
+                                        .keepAlive(keepAlive)
+                                        .build())
+                                .call()
+                                .content();
+                        logger.info("🔥 Warmed up model {} in {} ms",
+                                model, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    } catch (Exception e) {
+                        logger.warn("Warm-up of model {} failed: {}", model, e.getMessage());
+                    }
+                });
+    }
+
+    private void recordTimeToFirstToken(SummaryTier tier, SummaryPrompt prompt, long nanos) {
+        Timer.builder("summary.llm.ttft")
+                .description("Time from request to the first streamed token")
+                .tag("tier", tier.key())
+                .tag("prompt", prompt.id())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordDuration(Timer.Sample sample, SummaryTier tier, String outcome) {
+        TierSettings settings = tiers.get(tier);
+        long nanos = sample.stop(Timer.builder("summary.duration")
+                .description("End-to-end LLM summarization time per tier")
+                .tag("tier", tier.key())
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .serviceLevelObjectives(settings.slo())
+                .register(meterRegistry));
+
+        if (nanos > settings.slo().toNanos()) {
+            Counter.builder("summary.slo.breaches")
+                    .description("Summaries that exceeded the tier's latency SLO")
+                    .tag("tier", tier.key())
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("⏱️ Tier {} exceeded SLO {}: took {} ms",
+                    tier.key(), settings.slo(), TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /**
+     * Estimates LLM tokens (prompt + completion) a request will consume, for quota accounting.
+     * Only the chunked path sends the full text; the others truncate it first. Incremental
+     * balanced requests are charged for the chunked path, an upper bound if they fall back.
+     */
+    public long estimateTokens(String content, SummaryTier tier, boolean incremental) {
+        TierSettings settings = tiers.get(tier);
+        boolean chunked = tier == SummaryTier.THOROUGH || (tier == SummaryTier.BALANCED && incremental);
+        long inputChars = chunked
+                ? Math.min(content.length(), (long) settings.maxInputChars() * settings.maxChunks())
+                : Math.min(content.length(), settings.maxInputChars());
+        return QuotaService.estimateTokens((int) inputChars) + settings.maxTokens();
+    }
+
+    private String summarizeFast(String content, TierSettings settings) {
+        return call(prompts.get(Kind.FAST), truncate(content, settings.maxInputChars()), settings);
+    }
+
+    private DocumentAnalysis analyzeWhole(String content, TierSettings settings) {
+        return callStructured(prompts.get(Kind.ANALYZE), truncate(content, settings.maxInputChars()), settings);
+    }
+
+    /**
+     * True when most chunk summaries of this text are already cached for the
+     * tier's model, so a chunked summary would mostly reuse them. A balanced
+     * first upload is summarized whole and caches nothing; its chunks are
+     * cached once a new version of it goes through the chunked path.
+     */
+    public boolean reusesChunkCache(String content, SummaryTier tier) {
+        ChunkPlan plan = planChunks(content, tiers.get(tier));
+        return plan.chunks().size() > 1 && plan.hits() >= plan.chunks().size() * minCacheHitRatio;
+    }
+
+    /**
+     * Splits the text and looks up the cached summary of each chunk.
+     */
+    private ChunkPlan planChunks(String content, TierSettings settings) {
+        List<String> chunks = splitIntoChunks(content, settings.maxInputChars(), settings.maxChunks());
+        SummaryPrompt section = prompts.get(Kind.SECTION);
+        List<String> hashes = new ArrayList<>(chunks.size());
+        List<ChunkSummary> cached = new ArrayList<>(chunks.size());
+        for (String chunk : chunks) {
+            // Keyed by prompt version too, so a template change does not reuse stale sections
+            String chunkHash = ContentHasher.sha256(section.id() + "\n" + chunk);
+            hashes.add(chunkHash);
+            cached.add(chunkSummaryRepository.findByChunkHashAndModel(chunkHash, settings.model()).orElse(null));
+        }
+        return new ChunkPlan(chunks, hashes, cached);
+    }
+
+    /**
+     * Map-reduce: summarize each chunk of the full text, then analyze the
+     * section summaries into the final result. Chunk summaries are cached by
+     * content hash, so only sections that changed since an earlier version of
+     * the document reach the model in the map step.
+     */
+    private DocumentAnalysis analyzeChunked(ChunkPlan plan, String content, TierSettings settings) {
+        List<String> chunks = plan.chunks();
+        if (chunks.size() == 1) {
+            return analyzeWhole(content, settings);
+        }
+
+        SummaryPrompt section = prompts.get(Kind.SECTION);
+        List<String> sectionSummaries = new ArrayList<>(chunks.size());
+        int generated = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            String chunkHash = plan.hashes().get(i);
+            ChunkSummary cached = plan.cached().get(i);
+            if (cached != null) {
+                chunkCacheHits.increment();
+                sectionSummaries.add(cached.getSummaryText());
+                continue;
+            }
+
+            chunkCacheMisses.increment();
+            generated++;
+            String sectionSummary = call(section, chunk, settings, false);
+            sectionSummary = sectionSummary != null ? sectionSummary.trim() : "";
+            sectionSummaries.add(sectionSummary);
+            cacheChunkSummary(chunkHash, settings.model(), sectionSummary);
+        }
+
+        logger.info("🧩 Chunked summary over {} chunks ({} generated, {} reused)",
+                chunks.size(), generated, chunks.size() - generated);
+
+        return callStructured(prompts.get(Kind.ANALYZE_SECTIONS), String.join("\n\n", sectionSummaries), settings);
+    }
+
+    private DocumentAnalysis callStructured(SummaryPrompt prompt, String content, TierSettings settings) {
+        return parseAnalysis(call(prompt.withFormat(ANALYSIS_CONVERTER.getFormat()), content, settings, true));
+    }
+
+    /**
+     * Parses the model's JSON answer, getting progressively more forgiving:
+     * strict conversion, then lenient JSON (trailing commas, raw newlines,
+     * surrounding prose), then pulling out just the summary field of output
+     * cut off by the token limit, and finally the raw text as the summary.
+     */
+    DocumentAnalysis parseAnalysis(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return parsed(ANALYSIS_CONVERTER.convert(raw).toAnalysis(), "structured");
+        } catch (RuntimeException e) {
+            logger.debug("Strict analysis parse failed: {}", e.getMessage());
+        }
+
+        int start = raw.indexOf('{');
+        int end = raw.lastIndexOf('}');
+        if (start >= 0 && end > start) {
+            try {
+                return parsed(LENIENT_JSON.readValue(raw.substring(start, end + 1), ModelAnalysis.class).toAnalysis(),
+                        "lenient");
+            } catch (Exception e) {
+                logger.debug("Lenient analysis parse failed: {}", e.getMessage());
+            }
+        }
+
+        Matcher summaryField = SUMMARY_FIELD.matcher(raw);
+        if (summaryField.find()) {
+            String summary = summaryField.group(1).replace("\\n", "\n").replace("\\\"", "\"");
+            return parsed(DocumentAnalysis.of(summary), "salvaged");
+        }
+
+        logger.warn("⚠️ Model did not return structured output, keeping it as plain summary");
+        return parsed(DocumentAnalysis.of(raw), "fallback");
+    }
+
+    private DocumentAnalysis parsed(DocumentAnalysis analysis, String result) {
+        Counter.builder("summary.analysis.parse")
+                .description("How structured analysis output was parsed")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+        return analysis;
+    }
+
+    private void cacheChunkSummary(String chunkHash, String model, String summaryText) {
+        if (summaryText.isEmpty()) {
+            return;
+        }
+        try {
+            chunkSummaryRepository.save(new ChunkSummary(chunkHash, model, summaryText));
+        } catch (DataIntegrityViolationException e) {
+            // Another request summarized the same chunk concurrently
+            logger.debug("Chunk summary {} already cached", chunkHash);
+        }
+    }
+
+    /**
+     * One model invocation, traced as its own span carrying the token usage
+     * Ollama reports for it.
+     */
+    private String call(SummaryPrompt prompt, String content, TierSettings settings) {
+        return call(prompt, content, settings, false);
+    }
+
+    private String call(SummaryPrompt prompt, String content, TierSettings settings, boolean json) {
+        Observation observation = llmObservation(prompt, content, settings, false);
+
+        return observation.observe(() -> {
+            ChatResponse response = request(prompt, content, settings, json)
+                    .call()
+                    .chatResponse();
+            if (response == null || response.getResult() == null) {
+                return null;
+            }
+
+            recordUsage(observation, response.getMetadata().getUsage());
+            return response.getResult().getOutput().getText();
+        });
+    }
+
+    private Observation llmObservation(SummaryPrompt prompt, String content, TierSettings settings, boolean streaming) {
+        return Observation.createNotStarted("summary.llm.call", observationRegistry)
+                .contextualName("llm-call")
+                .lowCardinalityKeyValue("llm.model", settings.model())
+                .lowCardinalityKeyValue("llm.prompt", prompt.id())
+                .lowCardinalityKeyValue("llm.streaming", String.valueOf(streaming))
+                .highCardinalityKeyValue("llm.prompt.chars", String.valueOf(content.length()));
+    }
+
+    private static void recordUsage(Observation observation, Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        observation.highCardinalityKeyValue("llm.usage.prompt_tokens", String.valueOf(usage.getPromptTokens()));
+        observation.highCardinalityKeyValue("llm.usage.completion_tokens", String.valueOf(usage.getGenerationTokens()));
+        observation.highCardinalityKeyValue("llm.usage.total_tokens", String.valueOf(usage.getTotalTokens()));
+    }
+
+    private static String text(ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text != null ? text : "";
+    }
+
+    /**
+     * Fixed instructions go in the system message ahead of the document, so
+     * requests sharing a template share a prompt prefix Ollama can keep cached.
+     */
+    private ChatClient.ChatClientRequestSpec request(SummaryPrompt prompt, String content,
+                                                     TierSettings settings, boolean json) {
+        ChatClient.ChatClientRequestSpec request = chatClient.prompt();
+        if (!prompt.system().isBlank()) {
+            request = request.system(prompt.system());
+        }
+        return request.user(prompt.renderUser(content))
+                .options(options(settings, json));
+    }
+
+    private OllamaOptions options(TierSettings settings, boolean json) {
+        OllamaOptions.Builder options = OllamaOptions.builder()
+                .model(settings.model())
+                .numPredict(settings.maxTokens())
+                .keepAlive(keepAlive);
+        if (json) {
+            // Ollama constrains sampling to valid JSON
+            options.format("json");
+        }
+        return options.build();
+    }
+
+    private static String truncate(String content, int limit) {
+        return content.length() > limit ? content.substring(0, limit) + "..." : content;
+    }
+
+    /**
+     * Content-defined chunking: paragraphs are grouped into chunks of at most
+     * chunkSize characters, and a chunk may also end after any paragraph whose
+     * hash hits a fixed pattern once it is at least half full. Boundaries thus
+     * depend on the text itself rather than on absolute offsets, so an edit
+     * only changes the chunks around it. Stops after maxChunks.
+     */
+    static List<String> splitIntoChunks(String content, int chunkSize, int maxChunks) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int consumed = 0;
+
+        for (String paragraph : content.split("\\n\\s*\\n")) {
+            if (chunks.size() >= maxChunks) {
+                break;
+            }
+            String trimmed = paragraph.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            // Oversized paragraphs are cut at sentence boundaries
+            List<String> pieces = new ArrayList<>();
+            while (trimmed.length() > chunkSize) {
+                // From chunkSize - 1 so the kept period still fits in the chunk
+                int cut = trimmed.lastIndexOf(". ", chunkSize - 1);
+                cut = cut > chunkSize / 2 ? cut + 1 : chunkSize;
+                pieces.add(trimmed.substring(0, cut).trim());
+                trimmed = trimmed.substring(cut).trim();
+            }
+            pieces.add(trimmed);
+
+            for (String piece : pieces) {
+                if (current.length() > 0 && current.length() + piece.length() + 2 > chunkSize) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                    if (chunks.size() >= maxChunks) {
+                        break;
+                    }
+                }
+                if (current.length() > 0) {
+                    current.append("\n\n");
+                }
+                current.append(piece);
+                consumed += piece.length();
+
+                if (current.length() >= chunkSize / 2 && (piece.hashCode() & 0x3) == 0) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                    if (chunks.size() >= maxChunks) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (current.length() > 0 && chunks.size() < maxChunks) {
+            chunks.add(current.toString());
+        } else if (chunks.size() >= maxChunks && consumed < content.trim().length()) {
+            logger.warn("⚠️ Document exceeds {} chunks; remaining text not summarized", maxChunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * Target type of the structured output converter, so the descriptions end
+     * up in the JSON schema the model is given.
+     */
+    record ModelAnalysis(
+            @JsonPropertyDescription("Summary of the document in 5-7 sentences")
+            String summary,
+            @JsonPropertyDescription("Short descriptive title, at most 12 words")
+            String title,
+            @JsonPropertyDescription("5-8 keywords or key phrases")
+            List<String> keywords,
+            @JsonPropertyDescription("One of: report, contract, invoice, research-paper, resume, manual, letter, presentation, article, other")
+            String documentType) {
+
+        DocumentAnalysis toAnalysis() {
+            return new DocumentAnalysis(summary, title, keywords, documentType, Summary.Status.COMPLETE);
+        }
+    }
+
+    /**
+     * Chunks of a document with their hashes and cached summaries (null where missing).
+     */
+    private record ChunkPlan(List<String> chunks, List<String> hashes, List<ChunkSummary> cached) {
+
+        int hits() {
+            return (int) cached.stream().filter(Objects::nonNull).count();
+        }
+    }
+
+    private record TierSettings(String model, int maxInputChars, int maxTokens, int maxChunks, Duration slo) {
+
+        static TierSettings from(Environment env, SummaryTier tier, String defaultModel,
+                                 int defaultInputChars, int defaultMaxTokens, String defaultSlo) {
+            String prefix = "summary.tier." + tier.key() + ".";
+            return new TierSettings(
+                    env.getProperty(prefix + "model", defaultModel),
+                    env.getProperty(prefix + "max-input-chars", Integer.class, defaultInputChars),
+                    env.getProperty(prefix + "max-tokens", Integer.class, defaultMaxTokens),
+                    env.getProperty(prefix + "max-chunks", Integer.class, 20),
+                    env.getProperty(prefix + "slo", Duration.class, Duration.parse("PT" + defaultSlo.toUpperCase())));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techie.springai.rag.Repository.SummaryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the summaries table small by moving the text of summaries whose
+ * document was uploaded more than archive-after ago into summary_archive.
+ * The summaries row stays (metadata, archived flag), so listings are
+ * unchanged and GET /api/documents/{id}/summary reads through to the archive.
+ *
+ * Each run moves at most max-batches of batch-size rows, one transaction per
+ * batch, and first makes sure the documents table has a partition for next
+ * year's uploads.
+ */
+@Service
+public class SummaryArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryArchiveService.class);
+
+    private static final String LOCK_NAME = "summary-archive";
+
+    private final SummaryRepository summaryRepository;
+    private final SummaryReadService summaryReadService;
+    private final ClusterNode clusterNode;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    private final int maxBatches;
+    private final boolean managePartitions;
+    private final Duration lockTtl;
+    private final Counter summariesArchived;
+
+    public SummaryArchiveService(SummaryRepository summaryRepository,
+                                 SummaryReadService summaryReadService,
+                                 ClusterNode clusterNode,
+                                 TransactionTemplate transactionTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${summary.archive.enabled:true}") boolean enabled,
+                                 @Value("${summary.archive.after:365d}") Duration archiveAfter,
+                                 @Value("${summary.archive.batch-size:1000}") int batchSize,
+                                 @Value("${summary.archive.max-batches-per-run:100}") int maxBatches,
+                                 @Value("${summary.archive.manage-partitions:true}") boolean managePartitions,
+                                 @Value("${summary.archive.lock-ttl:PT1H}") Duration lockTtl) {
+        this.summaryRepository = summaryRepository;
+        this.summaryReadService = summaryReadService;
+        this.clusterNode = clusterNode;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.managePartitions = managePartitions;
+        this.lockTtl = lockTtl;
+        this.summariesArchived = Counter.builder("summary.archive.moved")
+                .description("Summaries whose text was moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${summary.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (!clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+            logger.debug("Summary archive run skipped, another node holds the lock");
+            return;
+        }
+
+        if (managePartitions) {
+            ensureNextYearPartition();
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Summary archive run stopped after {} summaries: {}", total, e.getMessage());
+        }
+
+        if (total > 0) {
+            summariesArchived.increment(total);
+            logger.info("🗄️ Archived {} summaries of documents uploaded before {}", total, cutoff.toLocalDate());
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = summaryRepository.findArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        summaryRepository.copyToArchive(ids, LocalDateTime.now());
+        summaryRepository.markArchived(ids);
+        summaryRepository.findDocumentIds(ids).forEach(summaryReadService::evict);
+        return ids.size();
+    }
+
+    /**
+     * Splits next year's partition off the catch-all pmax partition while it
+     * is still empty, so the split doesn't have to move rows.
+     */
+    private void ensureNextYearPartition() {
+        int nextYear = Year.now().getValue() + 1;
+        try {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                  + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'documents' AND PARTITION_NAME IS NOT NULL",
+                    String.class);
+            if (!partitions.contains("pmax") || partitions.contains("p" + nextYear)) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE documents REORGANIZE PARTITION pmax INTO ("
+                    + "PARTITION p" + nextYear + " VALUES LESS THAN ('" + (nextYear + 1) + "-01-01'), "
+                    + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+            logger.info("🗄️ Added documents partition p{}", nextYear);
+        } catch (DataAccessException e) {
+            // Not MySQL, or documents isn't partitioned
+            logger.debug("Partition maintenance skipped: {}", e.getMessage());
+        }
+    }
+}
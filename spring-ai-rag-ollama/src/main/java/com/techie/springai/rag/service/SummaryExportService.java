@@ -0,0 +1,104 @@
+package com.techie.springai.rag.service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.techie.springai.rag.Repository.SummaryRepository;
+import com.techie.springai.rag.Repository.SummaryView;
+import com.techie.springai.rag.entity.Summary;
+
+/**
+ * Writes all of a user's finished summaries as a ZIP archive straight to an
+ * output stream. Summaries are read in keyset pages and each entry is
+ * compressed and written as soon as it is read, so memory use is bounded by
+ * one page regardless of how many documents the user has, and nothing is
+ * staged on disk.
+ */
+@Service
+public class SummaryExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryExportService.class);
+
+    // Before any upload date (MySQL's smallest DATETIME)
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private final SummaryRepository summaryRepository;
+    private final int pageSize;
+
+    public SummaryExportService(SummaryRepository summaryRepository,
+                                @Value("${export.page-size:200}") int pageSize) {
+        this.summaryRepository = summaryRepository;
+        this.pageSize = pageSize;
+    }
+
+    public void writeZip(Long userId, OutputStream out) throws IOException {
+        int exported = 0;
+        // Closing the zip ends the archive and frees its deflater; the response
+        // stream itself is left open for the servlet container
+        try (ZipOutputStream zip = new ZipOutputStream(new NonClosingOutputStream(out), StandardCharsets.UTF_8)) {
+            LocalDateTime afterDate = FIRST_PAGE;
+            long afterId = 0;
+            List<SummaryView> page;
+            do {
+                page = summaryRepository.findViewsByUserIdAfter(userId, afterDate, afterId, PageRequest.of(0, pageSize));
+                for (SummaryView view : page) {
+                    afterDate = view.uploadDate();
+                    afterId = view.documentId();
+                    if (view.status() != Summary.Status.COMPLETE) {
+                        continue;
+                    }
+                    ZipEntry entry = new ZipEntry(entryName(view));
+                    if (view.createdAt() != null) {
+                        entry.setTime(view.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    }
+                    zip.putNextEntry(entry);
+                    zip.write(view.summaryText().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                    exported++;
+                }
+                // Push each page to the client instead of letting it pile up in buffers
+                zip.flush();
+            } while (page.size() == pageSize);
+        }
+
+        logger.info("📦 Exported {} summaries for user ID: {}", exported, userId);
+    }
+
+    // Document ID prefix keeps names unique across versions of the same file
+    private static String entryName(SummaryView view) {
+        String filename = view.filename() != null ? view.filename() : "document";
+        String safe = filename.replaceAll("[/\\\\:]", "_");
+        return view.documentId() + "_" + DocumentService.summaryFilenameFor(safe);
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        // FilterOutputStream would write the array one byte at a time
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.techie.springai.rag.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.techie.springai.rag.Repository.SummaryJobRepository;
+import com.techie.springai.rag.entity.Document;
+import com.techie.springai.rag.entity.SummaryJob;
+
+/**
+ * Database-backed queue of summarization jobs shared by all nodes.
+ *
+ * A node leases jobs by locking available rows with FOR UPDATE SKIP LOCKED,
+ * so concurrent pollers never block on or double-claim the same job, and
+ * stamps them with its node ID and a lease expiry. Running jobs are renewed
+ * while in flight; if a node dies its leases lapse and another node picks
+ * the jobs up. Completion is fenced on the lease owner, so a node whose
+ * lease was taken over cannot overwrite the newer result.
+ */
+@Service
+public class SummaryJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryJobService.class);
+
+    private final SummaryJobRepository summaryJobRepository;
+    private final DocumentService documentService;
+    private final NearDuplicateService nearDuplicateService;
+    private final SummarizationService summarizationService;
+    private final QuotaService quotaService;
+    private final ClusterNode clusterNode;
+    private final Duration leaseDuration;
+    private final Duration releaseBackoff;
+    private final int maxAttempts;
+
+    public SummaryJobService(SummaryJobRepository summaryJobRepository,
+                             DocumentService documentService,
+                             NearDuplicateService nearDuplicateService,
+                             SummarizationService summarizationService,
+                             QuotaService quotaService,
+                             ClusterNode clusterNode,
+                             @Value("${summary.jobs.lease:PT10M}") Duration leaseDuration,
+                             @Value("${summary.jobs.release-backoff:PT1M}") Duration releaseBackoff,
+                             @Value("${summary.jobs.max-attempts:3}") int maxAttempts) {
+        this.summaryJobRepository = summaryJobRepository;
+        this.documentService = documentService;
+        this.nearDuplicateService = nearDuplicateService;
+        this.summarizationService = summarizationService;
+        this.quotaService = quotaService;
+        this.clusterNode = clusterNode;
+        this.leaseDuration = leaseDuration;
+        this.releaseBackoff = releaseBackoff;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Saves the upload with a pending summary and queues the job for it in
+     * one transaction.
+     */
+    @Transactional
+    public SummaryJob submit(MultipartFile file, Long userId, Document previous, String contentHash,
+                             String text, SummaryTier tier, PriorityClass priority, boolean incremental)
+            throws IOException {
+        Document document = documentService.saveDocument(
+                file, DocumentAnalysis.pending(), userId, previous, contentHash);
+        SummaryJob job = summaryJobRepository.save(new SummaryJob(
+                document.getId(), userId, tier.key(), priority.key(), incremental, text));
+        logger.info("📥 Queued summary job {} for document ID: {}", job.getId(), document.getId());
+        return job;
+    }
+
+    public Optional<SummaryJob> findForUser(Long jobId, Long userId) {
+        return summaryJobRepository.findByIdAndUserId(jobId, userId);
+    }
+
+    /**
+     * Leases up to limit pending or expired jobs to this node.
+     */
+    @Transactional
+    public List<SummaryJob> lease(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SummaryJob> jobs = summaryJobRepository.lockAvailable(now, limit);
+        for (SummaryJob job : jobs) {
+            if (job.getStatus() == SummaryJob.Status.LEASED) {
+                logger.warn("⏰ Lease of job {} held by {} expired, taking over", job.getId(), job.getLeaseOwner());
+            }
+            job.setStatus(SummaryJob.Status.LEASED);
+            job.setLeaseOwner(clusterNode.id());
+            job.setLeaseExpiresAt(now.plus(leaseDuration));
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobs;
+    }
+
+    @Transactional
+    public void renew(Collection<Long> jobIds) {
+        if (!jobIds.isEmpty()) {
+            summaryJobRepository.renewLeases(jobIds, clusterNode.id(), SummaryJob.Status.LEASED,
+                    LocalDateTime.now().plus(leaseDuration));
+        }
+    }
+
+    /**
+     * Writes the summary if this node still holds the lease. Returns false
+     * when the lease was lost to another node, or the document was deleted
+     * while the job ran (the job is then failed without retries).
+     */
+    @Transactional
+    public boolean complete(Long jobId, DocumentAnalysis analysis) throws IOException {
+        SummaryJob job = ownedLease(jobId);
+        if (job == null) {
+            return false;
+        }
+        if (!analysis.isComplete()) {
+            return retryOrFail(job, "Summarization returned no usable summary");
+        }
+
+        if (!documentService.updateSummary(job.getDocumentId(), analysis)) {
+            job.setLastError("Document was deleted");
+            finish(job, SummaryJob.Status.FAILED);
+            logger.warn("Summary job {} dropped, document ID: {} was deleted", job.getId(), job.getDocumentId());
+            return false;
+        }
+        nearDuplicateService.register(job.getDocumentId(), job.getUserId(), nearDuplicateService.signature(job.getContent()));
+
+        finish(job, SummaryJob.Status.DONE);
+        logger.info("✅ Summary job {} completed on {}", jobId, clusterNode.id());
+        return true;
+    }
+
+    /**
+     * Returns a leased job to the queue without counting the attempt, for
+     * jobs this node could not start (e.g. no memory budget left). The job
+     * is not leased again for release-backoff, so a node that stays short of
+     * memory doesn't keep leasing and rejecting it.
+     */
+    @Transactional
+    public void release(Long jobId) {
+        SummaryJob job = ownedLease(jobId);
+        if (job != null) {
+            job.setStatus(SummaryJob.Status.PENDING);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(LocalDateTime.now().plus(releaseBackoff));
+            job.setAttempts(job.getAttempts() - 1);
+            logger.info("↩️ Summary job {} released, node is out of memory budget; retrying in {}",
+                    jobId, releaseBackoff);
+        }
+    }
+
+    @Transactional
+    public void fail(Long jobId, String error) throws IOException {
+        SummaryJob job = ownedLease(jobId);
+        if (job != null) {
+            retryOrFail(job, error);
+        }
+    }
+
+    private boolean retryOrFail(SummaryJob job, String error) throws IOException {
+        job.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        if (job.getAttempts() < maxAttempts) {
+            job.setStatus(SummaryJob.Status.PENDING);
+            logger.warn("🔁 Summary job {} failed (attempt {}), requeued: {}", job.getId(), job.getAttempts(), error);
+            return false;
+        }
+
+        // The tokens charged at upload; quotas are per node, so this refunds on the node running the job
+        quotaService.refundLlmTokens(job.getUserId(), summarizationService.estimateTokens(
+                job.getContent(), SummaryTier.fromParam(job.getTier()), job.isIncremental()));
+        finish(job, SummaryJob.Status.FAILED);
+        // Nothing to update if the document was deleted; the job is failed either way
+        documentService.updateSummary(job.getDocumentId(),
+                DocumentAnalysis.failed(SummarizationService.FAILURE_MESSAGE));
+        logger.error("❌ Summary job {} failed after {} attempts: {}", job.getId(), job.getAttempts(), error);
+        return false;
+    }
+
+    private static void finish(SummaryJob job, SummaryJob.Status status) {
+        job.setStatus(status);
+        job.setContent(null);
+        job.setLeaseExpiresAt(null);
+        job.setCompletedAt(LocalDateTime.now());
+    }
+
+    private SummaryJob ownedLease(Long jobId) {
+        SummaryJob job = summaryJobRepository.findLockedById(jobId).orElse(null);
+        if (job == null || job.getStatus() != SummaryJob.Status.LEASED
+                || !clusterNode.id().equals(job.getLeaseOwner())) {
+            logger.warn("Lost lease on summary job {}, discarding result", jobId);
+            return null;
+        }
+        return job;
+    }
+}
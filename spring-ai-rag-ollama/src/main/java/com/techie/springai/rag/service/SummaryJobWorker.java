@@ -0,0 +1,144 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.techie.springai.rag.entity.SummaryJob;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Polls the shared job table and runs leased jobs on this node. Every node
+ * runs a worker; the lease query guarantees each job goes to only one of
+ * them at a time. Jobs still pass through the local SummaryScheduler, so
+ * they share this node's Ollama concurrency limit and fairness with
+ * interactive uploads. Leases are renewed by a dedicated thread, so a
+ * long-running scheduled task elsewhere can't let them lapse mid-job.
+ */
+@Service
+public class SummaryJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryJobWorker.class);
+
+    private final SummaryJobService summaryJobService;
+    private final SummarizationService summarizationService;
+    private final SummaryScheduler summaryScheduler;
+    private final MemoryBudget memoryBudget;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final Duration renewInterval;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService renewer;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public SummaryJobWorker(SummaryJobService summaryJobService,
+                            SummarizationService summarizationService,
+                            SummaryScheduler summaryScheduler,
+                            MemoryBudget memoryBudget,
+                            @Value("${summary.jobs.enabled:true}") boolean enabled,
+                            @Value("${summary.jobs.max-in-flight:4}") int maxInFlight,
+                            @Value("${summary.jobs.lease:PT10M}") Duration lease) {
+        this.summaryJobService = summaryJobService;
+        this.summarizationService = summarizationService;
+        this.summaryScheduler = summaryScheduler;
+        this.memoryBudget = memoryBudget;
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        // Three renewals per lease, so one missed renewal doesn't lose the job
+        this.renewInterval = lease.dividedBy(3);
+        this.executor = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread thread = new Thread(r, "summary-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "summary-job-renew");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            renewer.scheduleWithFixedDelay(this::renew, renewInterval.toMillis(), renewInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void renew() {
+        try {
+            summaryJobService.renew(Set.copyOf(inFlight));
+        } catch (Exception e) {
+            logger.warn("Summary job lease renewal failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${summary.jobs.poll-interval:PT5S}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int capacity = maxInFlight - inFlight.size();
+            if (capacity <= 0) {
+                return;
+            }
+            List<SummaryJob> jobs = summaryJobService.lease(capacity);
+            for (SummaryJob job : jobs) {
+                inFlight.add(job.getId());
+                executor.execute(() -> run(job));
+            }
+        } catch (Exception e) {
+            logger.error("Summary job poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void run(SummaryJob job) {
+        // Leased jobs already hold their text; count it against the same budget as uploads
+        try (MemoryBudget.Reservation reservation = memoryBudget.reserve(memoryBudget.estimateText(job.getContent().length()))) {
+            SummaryTier tier = SummaryTier.fromParam(job.getTier());
+            PriorityClass priority = PriorityClass.fromParam(job.getPriority());
+            // No max-wait: a timeout would count an attempt and requeue the job while its LLM call still runs
+            DocumentAnalysis analysis = summaryScheduler.submitWithoutDeadline(job.getUserId(), priority,
+                    () -> summarizationService.analyze(job.getContent(), tier, job.isIncremental()));
+            summaryJobService.complete(job.getId(), analysis);
+        } catch (MemoryBudgetExceededException e) {
+            // The node is busy, not the job broken: hand it back without using up an attempt
+            try {
+                summaryJobService.release(job.getId());
+            } catch (Exception failure) {
+                logger.error("Could not release job {}: {}", job.getId(), failure.getMessage());
+            }
+        } catch (Exception e) {
+            try {
+                summaryJobService.fail(job.getId(), e.getMessage());
+            } catch (Exception failure) {
+                // The lease will expire and another attempt will be made
+                logger.error("Could not record failure of job {}: {}", job.getId(), failure.getMessage());
+            }
+        } finally {
+            inFlight.remove(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs are picked up elsewhere once their leases expire
+        renewer.shutdownNow();
+        executor.shutdownNow();
+    }
+}
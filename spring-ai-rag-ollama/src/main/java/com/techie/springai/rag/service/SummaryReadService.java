@@ -0,0 +1,162 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.techie.springai.rag.Repository.SummaryRepository;
+import com.techie.springai.rag.Repository.SummaryView;
+import com.techie.springai.rag.Repository.UserRepository;
+import com.techie.springai.rag.entity.Summary;
+import com.techie.springai.rag.entity.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read path for single-document summaries. Complete summaries rarely change
+ * once written, so they are kept in a bounded LRU cache together with a
+ * strong ETag, and the email to user ID mapping used for the ownership check
+ * is cached too. A cache hit costs no database queries. Pending and failed
+ * summaries are replaced when their job finishes or is retried, so they are
+ * always read from the database and get no ETag.
+ *
+ * Code that rewrites a summary (job completion, archiving) evicts it, but
+ * only on the node that made the change. In cluster mode other nodes keep
+ * serving their copy until it is older than the cache TTL; the ETag covers
+ * the status and the time the summary was written, so clients revalidating
+ * against a fresh node see the change.
+ */
+@Service
+public class SummaryReadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryReadService.class);
+
+    private final SummaryRepository summaryRepository;
+    private final UserRepository userRepository;
+    private final Map<Long, CacheEntry> summaries;
+    private final Map<String, Long> userIds;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SummaryReadService(SummaryRepository summaryRepository,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${summary.read-cache.size:10000}") int cacheSize,
+                              @Value("${summary.read-cache.ttl:PT1M}") Duration ttl) {
+        this.summaryRepository = summaryRepository;
+        this.userRepository = userRepository;
+        this.summaries = boundedLru(cacheSize);
+        this.userIds = boundedLru(cacheSize);
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("summary.read.cache")
+                .description("Summary reads served from cache vs database")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("summary.read.cache")
+                .description("Summary reads served from cache vs database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the summary if the document exists, has a summary and belongs
+     * to the user with the given email.
+     */
+    public Optional<CachedSummary> findForUser(Long documentId, String email) {
+        Long userId = findUserId(email);
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        CacheEntry entry = summaries.get(documentId);
+        CachedSummary cached;
+        if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            cached = entry.summary();
+        } else {
+            misses.increment();
+            SummaryView view = summaryRepository.findViewByDocumentId(documentId).orElse(null);
+            if (view == null) {
+                summaries.remove(documentId);
+                return Optional.empty();
+            }
+            if (view.status() == Summary.Status.COMPLETE) {
+                cached = new CachedSummary(view, etagFor(view));
+                summaries.put(documentId, new CacheEntry(cached, System.nanoTime()));
+            } else {
+                summaries.remove(documentId);
+                cached = new CachedSummary(view, null);
+            }
+        }
+
+        if (!cached.view().userId().equals(userId)) {
+            logger.warn("⛔ User {} requested summary of document {} owned by another user", userId, documentId);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Cached email to user ID lookup; returns null for unknown users.
+     */
+    public Long findUserId(String email) {
+        Long userId = userIds.get(email);
+        if (userId == null) {
+            userId = userRepository.findByEmail(email).map(User::getId).orElse(null);
+            if (userId != null) {
+                userIds.put(email, userId);
+            }
+        }
+        return userId;
+    }
+
+    /**
+     * Drops the cached summary. Inside a transaction it is dropped again
+     * after commit, so a read that raced the update can't re-cache the old text.
+     */
+    public void evict(Long documentId) {
+        summaries.remove(documentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    summaries.remove(documentId);
+                }
+            });
+        }
+    }
+
+    private static String etagFor(SummaryView view) {
+        String version = view.documentId() + ":" + view.status() + ":" + view.createdAt() + ":" + view.summaryText();
+        return "\"" + ContentHasher.sha256(version).substring(0, 32) + "\"";
+    }
+
+    private static <K, V> Map<K, V> boundedLru(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * A summary and its ETag; the ETag is null unless the summary is complete.
+     */
+    public record CachedSummary(SummaryView view, String etag) {
+    }
+
+    private record CacheEntry(CachedSummary summary, long loadedAt) {
+    }
+}
@@ -0,0 +1,321 @@
+package com.techie.springai.rag.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admits LLM work to a fixed pool of workers so Ollama is never flooded.
+ *
+ * Queued jobs are picked with weighted round robin across priority classes
+ * (interactive gets more turns than bulk) and plain round robin across users
+ * inside a class, so a user with 500 pending files gets one turn per cycle
+ * like everyone else.
+ *
+ * Blocking callers wait at most max-wait for their job (leased async jobs
+ * wait without a deadline). Jobs still queued at shutdown
+ * fail instead of leaving their callers hanging.
+ */
+@Service
+public class SummaryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryScheduler.class);
+
+    private final int maxQueuedPerUser;
+    private final Duration maxWait;
+    private final Map<PriorityClass, Integer> weights = new EnumMap<>(PriorityClass.class);
+    private final Map<PriorityClass, Integer> credits = new EnumMap<>(PriorityClass.class);
+    private final Map<PriorityClass, LinkedHashMap<Long, Deque<Job<?>>>> queues = new EnumMap<>(PriorityClass.class);
+    private final Map<PriorityClass, Timer> waitTimers = new EnumMap<>(PriorityClass.class);
+    private final Map<Long, Integer> queuedPerUser = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+    private int queued;
+    private volatile boolean running = true;
+
+    public SummaryScheduler(MeterRegistry meterRegistry,
+                            @Value("${summary.scheduler.workers:2}") int workerCount,
+                            @Value("${summary.scheduler.max-queued-per-user:100}") int maxQueuedPerUser,
+                            @Value("${summary.scheduler.weight.interactive:4}") int interactiveWeight,
+                            @Value("${summary.scheduler.weight.bulk:1}") int bulkWeight,
+                            @Value("${summary.scheduler.max-wait:PT5M}") Duration maxWait) {
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.maxWait = maxWait;
+        weights.put(PriorityClass.INTERACTIVE, Math.max(1, interactiveWeight));
+        weights.put(PriorityClass.BULK, Math.max(1, bulkWeight));
+
+        for (PriorityClass priority : PriorityClass.values()) {
+            credits.put(priority, 0);
+            queues.put(priority, new LinkedHashMap<>());
+            waitTimers.put(priority, Timer.builder("summary.queue.wait")
+                    .description("Time LLM jobs spend queued before a worker picks them up")
+                    .tag("class", priority.key())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("summary.queue.depth", this, s -> s.depth(priority))
+                    .description("LLM jobs waiting per priority class")
+                    .tag("class", priority.key())
+                    .register(meterRegistry);
+        }
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "summary-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("🗓️ Summary scheduler started with {} workers (weights interactive={}, bulk={})",
+                workerCount, weights.get(PriorityClass.INTERACTIVE), weights.get(PriorityClass.BULK));
+    }
+
+    /**
+     * Queues the task and blocks the calling thread until a worker has run it,
+     * or max-wait has passed. A job that times out while still queued is
+     * dropped; one already running finishes but its result is discarded.
+     */
+    public <T> T submit(Long userId, PriorityClass priority, Callable<T> task) throws Exception {
+        return submit(userId, priority, task, true);
+    }
+
+    /**
+     * Like submit, but waits for as long as the job takes, for callers whose
+     * wait is bounded otherwise (leased jobs are only renewed while this node
+     * works on them, and must not be given up while their LLM call runs on).
+     */
+    public <T> T submitWithoutDeadline(Long userId, PriorityClass priority, Callable<T> task) throws Exception {
+        return submit(userId, priority, task, false);
+    }
+
+    private <T> T submit(Long userId, PriorityClass priority, Callable<T> task, boolean deadline) throws Exception {
+        // Carry the caller's trace context over to the worker thread
+        Job<T> job = new Job<>(userId, priority, contextSnapshots.captureAll().wrap(task));
+        enqueue(job);
+
+        try {
+            return deadline
+                    ? job.result.get(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                    : job.result.get();
+        } catch (TimeoutException e) {
+            boolean dropped = remove(job);
+            logger.warn("⏱️ LLM job for user {} not done within {} ({})",
+                    userId, maxWait, dropped ? "dropped from queue" : "still running");
+            throw new TimeoutException("Summarization did not finish within " + maxWait.toSeconds() + "s.");
+        } catch (InterruptedException e) {
+            remove(job);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking variant for streaming callers: completes with a release
+     * handle once a worker picks the job up. The worker stays reserved for
+     * the caller until the handle is run, so streamed LLM calls count against
+     * the same concurrency limit as blocking ones. The caller must run the
+     * handle when its stream completes, fails or is cancelled (Flux.usingWhen
+     * does this on every termination); a stream may run longer than max-wait,
+     * so the worker is not reclaimed on a timer.
+     */
+    public CompletableFuture<Runnable> acquire(Long userId, PriorityClass priority) {
+        CompletableFuture<Runnable> granted = new CompletableFuture<>();
+        Job<Void> job = new Job<>(userId, priority, () -> {
+            CompletableFuture<Void> released = new CompletableFuture<>();
+            // The caller may have given up (e.g. client disconnected) while queued
+            if (granted.complete(() -> released.complete(null))) {
+                // Interrupted at shutdown
+                released.get();
+            }
+            return null;
+        });
+        // E.g. failed at shutdown before a worker got to it
+        job.result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                granted.completeExceptionally(error);
+            }
+        });
+        enqueue(job);
+        return granted;
+    }
+
+    private synchronized void enqueue(Job<?> job) {
+        if (!running) {
+            throw new RejectedExecutionException("Summary scheduler is shut down.");
+        }
+        int userQueued = queuedPerUser.getOrDefault(job.userId, 0);
+        if (userQueued >= maxQueuedPerUser) {
+            throw new QuotaExceededException("Too many documents queued. Please wait for earlier uploads to finish.");
+        }
+        queuedPerUser.put(job.userId, userQueued + 1);
+        queues.get(job.priority).computeIfAbsent(job.userId, id -> new ArrayDeque<>()).addLast(job);
+        queued++;
+        notifyAll();
+    }
+
+    private void runWorker() {
+        while (running) {
+            Job<?> job;
+            try {
+                job = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            waitTimers.get(job.priority).record(System.nanoTime() - job.enqueuedAt, TimeUnit.NANOSECONDS);
+            // Job.run never throws, so one bad task can't take a worker down
+            job.run();
+        }
+    }
+
+    /**
+     * Takes the job out of the queue if no worker has picked it up yet.
+     */
+    private synchronized boolean remove(Job<?> job) {
+        LinkedHashMap<Long, Deque<Job<?>>> classQueue = queues.get(job.priority);
+        Deque<Job<?>> userJobs = classQueue.get(job.userId);
+        if (userJobs == null || !userJobs.remove(job)) {
+            return false;
+        }
+        if (userJobs.isEmpty()) {
+            classQueue.remove(job.userId);
+        }
+        queued--;
+        decrementUser(job.userId);
+        return true;
+    }
+
+    private synchronized Job<?> take() throws InterruptedException {
+        while (queued == 0) {
+            wait();
+        }
+
+        PriorityClass priority = nextClass();
+        LinkedHashMap<Long, Deque<Job<?>>> classQueue = queues.get(priority);
+
+        // Round robin across users: take the head user's job, then move the user to the back
+        Iterator<Map.Entry<Long, Deque<Job<?>>>> it = classQueue.entrySet().iterator();
+        Map.Entry<Long, Deque<Job<?>>> entry = it.next();
+        Long userId = entry.getKey();
+        Deque<Job<?>> userJobs = entry.getValue();
+        Job<?> job = userJobs.pollFirst();
+        it.remove();
+        if (!userJobs.isEmpty()) {
+            classQueue.put(userId, userJobs);
+        }
+
+        queued--;
+        decrementUser(userId);
+        return job;
+    }
+
+    private void decrementUser(Long userId) {
+        int userQueued = queuedPerUser.get(userId) - 1;
+        if (userQueued == 0) {
+            queuedPerUser.remove(userId);
+        } else {
+            queuedPerUser.put(userId, userQueued);
+        }
+    }
+
+    /**
+     * Smooth weighted round robin over the classes that currently have work.
+     */
+    private PriorityClass nextClass() {
+        PriorityClass best = null;
+        int total = 0;
+        for (PriorityClass priority : PriorityClass.values()) {
+            if (queues.get(priority).isEmpty()) {
+                continue;
+            }
+            int weight = weights.get(priority);
+            total += weight;
+            credits.put(priority, credits.get(priority) + weight);
+            if (best == null || credits.get(priority) > credits.get(best)) {
+                best = priority;
+            }
+        }
+        credits.put(best, credits.get(best) - total);
+        return best;
+    }
+
+    private synchronized int depth(PriorityClass priority) {
+        int depth = 0;
+        for (Deque<Job<?>> userJobs : queues.get(priority).values()) {
+            depth += userJobs.size();
+        }
+        return depth;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Job<?>> pending = new ArrayList<>();
+        synchronized (this) {
+            running = false;
+            for (LinkedHashMap<Long, Deque<Job<?>>> classQueue : queues.values()) {
+                classQueue.values().forEach(pending::addAll);
+                classQueue.clear();
+            }
+            queuedPerUser.clear();
+            queued = 0;
+        }
+        workers.forEach(Thread::interrupt);
+
+        // Outside the lock: completing a future runs the caller's callbacks
+        RejectedExecutionException shutDown = new RejectedExecutionException("Summary scheduler is shut down.");
+        pending.forEach(job -> job.result.completeExceptionally(shutDown));
+        if (!pending.isEmpty()) {
+            logger.info("🗓️ Summary scheduler stopped, failed {} queued jobs", pending.size());
+        }
+    }
+
+    private static class Job<T> {
+        final Long userId;
+        final PriorityClass priority;
+        final Callable<T> task;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Job(Long userId, PriorityClass priority, Callable<T> task) {
+            this.userId = userId;
+            this.priority = priority;
+            this.task = task;
+        }
+
+        void run() {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
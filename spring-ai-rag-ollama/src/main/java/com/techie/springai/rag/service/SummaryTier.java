@@ -0,0 +1,37 @@
+package com.techie.springai.rag.service;
+
+import java.util.Locale;
+
+/**
+ * Summarization tiers selectable per request on /api/summary.
+ *
+ * FAST      - smallest model, heavily truncated input, short summary
+ * BALANCED  - default model and the original 5-7 sentence prompt
+ * THOROUGH  - map-reduce over the full extracted text with a larger model
+ */
+public enum SummaryTier {
+
+    FAST,
+    BALANCED,
+    THOROUGH;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses the request parameter; returns null for unknown values so the
+     * controller can answer with a 400.
+     */
+    public static SummaryTier fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return BALANCED;
+        }
+        for (SummaryTier tier : values()) {
+            if (tier.key().equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return tier;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.techie.springai.rag.service;
+
+import java.io.InputStream;
+import java.util.Locale;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+@Service
+public class TextExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextExtractionService.class);
+
+    public static final int MAX_CONTENT_LENGTH = 10_000_000;
+    public static final int MIN_TEXT_LENGTH = 100;
+
+    private final PdfParallelExtractor pdfParallelExtractor;
+    private final OcrService ocrService;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public TextExtractionService(PdfParallelExtractor pdfParallelExtractor,
+                                 OcrService ocrService,
+                                 MeterRegistry meterRegistry,
+                                 ObservationRegistry observationRegistry) {
+        this.pdfParallelExtractor = pdfParallelExtractor;
+        this.ocrService = ocrService;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Extracts text with Tika, or page-parallel with PDFBox for large PDFs;
+     * scanned PDFs without a text layer fall back to the OCR pipeline when it
+     * is enabled. Returns null if nothing usable was found.
+     */
+    public String extractText(InputStreamSource source, String filename) {
+        Observation observation = Observation.createNotStarted("document.extract", observationRegistry)
+                .contextualName("extract-text")
+                // No filename: it can carry personal data and traces leave the app
+                .lowCardinalityKeyValue("document.type", isPdf(filename) ? "pdf" : "other");
+        return observation.observe(() -> {
+            String text = doExtractText(source, filename);
+            observation.highCardinalityKeyValue("document.chars", String.valueOf(text != null ? text.length() : 0));
+            return text;
+        });
+    }
+
+    private String doExtractText(InputStreamSource source, String filename) {
+        String text = null;
+
+        if (isPdf(filename) && pdfParallelExtractor.isEnabled()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            text = pdfParallelExtractor.extract(source, filename);
+            if (text != null) {
+                sample.stop(extractionTimer("pdf-parallel"));
+            }
+        }
+
+        if (text == null) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            text = extractTextWithTika(source, filename);
+            sample.stop(extractionTimer("text"));
+        }
+
+        if ((text == null || text.length() < MIN_TEXT_LENGTH)
+                && isPdf(filename) && ocrService.isAvailable()) {
+            logger.info("🔎 Little or no text layer in {}, running OCR", filename);
+            Timer.Sample ocrSample = Timer.start(meterRegistry);
+            String ocrText = ocrService.extractText(source, filename);
+            ocrSample.stop(extractionTimer("ocr"));
+            if (ocrText != null && !ocrText.isBlank()) {
+                return ocrText.trim();
+            }
+        }
+        return text;
+    }
+
+    private String extractTextWithTika(InputStreamSource source, String filename) {
+        try {
+            AutoDetectParser parser = new AutoDetectParser();
+            BodyContentHandler handler = new BodyContentHandler(MAX_CONTENT_LENGTH);
+            Metadata metadata = new Metadata();
+            ParseContext context = new ParseContext();
+
+            // OCR only runs through OcrService, where it is cached and budgeted
+            TesseractOCRConfig ocrConfig = new TesseractOCRConfig();
+            ocrConfig.setSkipOcr(true);
+            context.set(TesseractOCRConfig.class, ocrConfig);
+
+            try (InputStream is = source.getInputStream()) {
+                parser.parse(is, handler, metadata, context);
+            }
+
+            String text = handler.toString().trim();
+
+            if (text.isEmpty()) {
+                logger.warn("No text extracted from file: {}", filename);
+                return null;
+            }
+
+            return text;
+
+        } catch (org.apache.tika.exception.TikaException e) {
+            logger.error("Tika parsing error: {}", e.getMessage());
+            throw new RuntimeException("Document parsing failed.", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error during text extraction: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to extract text from document.", e);
+        }
+    }
+
+    private Timer extractionTimer(String path) {
+        return Timer.builder("extraction.duration")
+                .description("Text extraction time by path")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    static boolean isPdf(String filename) {
+        return filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".pdf");
+    }
+}
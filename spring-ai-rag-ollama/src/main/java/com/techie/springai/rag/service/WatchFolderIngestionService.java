@@ -0,0 +1,381 @@
+package com.techie.springai.rag.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techie.springai.rag.Repository.IngestedFileRepository;
+import com.techie.springai.rag.Repository.UserRepository;
+import com.techie.springai.rag.entity.Document;
+import com.techie.springai.rag.entity.IngestedFile;
+import com.techie.springai.rag.entity.SummaryJob;
+import com.techie.springai.rag.entity.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingests files dropped into a watched directory on behalf of one user.
+ *
+ * A daemon thread watches the directory with a WatchService and also rescans
+ * it periodically, since network mounts don't deliver change events for
+ * files written by other hosts. A file is taken once its modification time
+ * is older than the settle period and its size hasn't changed for as long
+ * (copies that preserve the source's mtime look settled from the start). It is then
+ * extracted and queued as a bulk summary job, exactly like an
+ * /api/summary?async=true upload, and the job is saved in the same
+ * transaction as the file's checkpoint. Files whose size and modification
+ * time match their checkpoint are skipped, so restarts don't redo work.
+ * Touching a file makes it eligible again, e.g. to retry a failure.
+ *
+ * With a shared mount only the node holding the cluster lock watches.
+ */
+@Service
+public class WatchFolderIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchFolderIngestionService.class);
+
+    private static final String LOCK_NAME = "watch-folder-ingestion";
+    private static final List<String> SUPPORTED_EXTENSIONS = List.of(".pdf", ".docx", ".doc", ".txt");
+
+    private final TextExtractionService textExtractionService;
+    private final DocumentService documentService;
+    private final SummaryJobService summaryJobService;
+    private final MemoryBudget memoryBudget;
+    private final IngestedFileRepository ingestedFileRepository;
+    private final UserRepository userRepository;
+    private final ClusterNode clusterNode;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String watchDir;
+    private final String userEmail;
+    private final SummaryTier tier;
+    private final Duration settle;
+    private final Duration rescanInterval;
+    private final Duration lockTtl;
+    private final Set<Path> pending = new LinkedHashSet<>();
+    // Fingerprints (size:mtime) already checkpointed, to spare rescans a query per file
+    private final Map<Path, String> checkpointed = new HashMap<>();
+    // Size of each pending file and when it was first seen at that size
+    private final Map<Path, SizeSeen> sizes = new HashMap<>();
+    private final Counter filesQueued;
+    private final Counter filesSkipped;
+    private final Counter filesFailed;
+    private volatile boolean running = true;
+    private Thread watcherThread;
+
+    public WatchFolderIngestionService(TextExtractionService textExtractionService,
+                                       DocumentService documentService,
+                                       SummaryJobService summaryJobService,
+                                       MemoryBudget memoryBudget,
+                                       IngestedFileRepository ingestedFileRepository,
+                                       UserRepository userRepository,
+                                       ClusterNode clusterNode,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${ingest.watch.enabled:false}") boolean enabled,
+                                       @Value("${ingest.watch.dir:}") String watchDir,
+                                       @Value("${ingest.watch.user-email:}") String userEmail,
+                                       @Value("${ingest.watch.tier:balanced}") String tier,
+                                       @Value("${ingest.watch.settle:PT10S}") Duration settle,
+                                       @Value("${ingest.watch.rescan-interval:PT5M}") Duration rescanInterval,
+                                       @Value("${ingest.watch.lock-ttl:PT10M}") Duration lockTtl) {
+        this.textExtractionService = textExtractionService;
+        this.documentService = documentService;
+        this.summaryJobService = summaryJobService;
+        this.memoryBudget = memoryBudget;
+        this.ingestedFileRepository = ingestedFileRepository;
+        this.userRepository = userRepository;
+        this.clusterNode = clusterNode;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.watchDir = watchDir;
+        this.userEmail = userEmail;
+        SummaryTier parsedTier = SummaryTier.fromParam(tier);
+        this.tier = parsedTier != null ? parsedTier : SummaryTier.BALANCED;
+        this.settle = settle;
+        this.rescanInterval = rescanInterval;
+        this.lockTtl = lockTtl;
+        this.filesQueued = ingestCounter(meterRegistry, "queued");
+        this.filesSkipped = ingestCounter(meterRegistry, "skipped");
+        this.filesFailed = ingestCounter(meterRegistry, "failed");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (watchDir.isBlank() || userEmail.isBlank()) {
+            logger.warn("Watch-folder ingestion enabled without ingest.watch.dir and ingest.watch.user-email, not starting");
+            return;
+        }
+        watcherThread = new Thread(this::runWatcher, "watch-folder-ingest");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void runWatcher() {
+        Path dir = Paths.get(watchDir).toAbsolutePath().normalize();
+        while (running) {
+            try {
+                User user = userRepository.findByEmail(userEmail).orElse(null);
+                if (user == null) {
+                    logger.warn("Watch-folder user {} not found; they must sign in once", userEmail);
+                } else if (Files.isDirectory(dir) && clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+                    watch(dir, user.getId());
+                }
+                // Not ours to watch (yet), or the watch ended; try again later
+                Thread.sleep(settle.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Watch-folder ingestion failed: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(settle.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Watches until the lock is lost, the directory goes away or the
+     * application stops.
+     */
+    private void watch(Path dir, Long userId) throws IOException, InterruptedException {
+        logger.info("👀 Watching {} for documents", dir);
+        try (WatchService watcher = dir.getFileSystem().newWatchService()) {
+            dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            // Catch up on files dropped while nobody was watching
+            scan(dir);
+            long lastScan = System.nanoTime();
+
+            while (running) {
+                WatchKey key = watcher.poll(settle.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            scan(dir);
+                        } else {
+                            pending.add(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        logger.warn("Watch directory {} is no longer accessible", dir);
+                        return;
+                    }
+                }
+                // Renewed every round, so an idle watcher keeps the lock too
+                if (!clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+                    logger.info("Watch-folder lock lost, stopping ingestion on this node");
+                    return;
+                }
+                if (System.nanoTime() - lastScan > rescanInterval.toNanos()) {
+                    scan(dir);
+                    lastScan = System.nanoTime();
+                }
+                if (!ingestSettled(userId)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void scan(Path dir) throws IOException {
+        Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                present.add(file);
+                pending.add(file);
+            }
+        }
+        // Forget files that were removed, or the maps grow with every file ever dropped
+        checkpointed.keySet().retainAll(present);
+        sizes.keySet().retainAll(present);
+    }
+
+    /**
+     * Ingests pending files that have stopped changing. Returns false if the
+     * lock was lost in between.
+     */
+    boolean ingestSettled(Long userId) throws IOException {
+        long now = System.currentTimeMillis();
+        long settledBefore = now - settle.toMillis();
+        Iterator<Path> it = pending.iterator();
+        while (it.hasNext() && running) {
+            Path file = it.next();
+            if (!Files.isRegularFile(file) || !isSupported(file)) {
+                it.remove();
+                sizes.remove(file);
+                continue;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long modified = attrs.lastModifiedTime().toMillis();
+            String fingerprint = attrs.size() + ":" + modified;
+            if (fingerprint.equals(checkpointed.get(file))) {
+                it.remove();
+                sizes.remove(file);
+                continue;
+            }
+
+            SizeSeen seen = sizes.get(file);
+            if (seen == null || seen.size() != attrs.size()) {
+                sizes.put(file, new SizeSeen(attrs.size(), now));
+                continue;
+            }
+            if (modified > settledBefore || seen.since() > settledBefore) {
+                // Still being written; look again on the next round
+                continue;
+            }
+            it.remove();
+            sizes.remove(file);
+
+            // Renew before each file; extraction can take a while
+            if (!clusterNode.tryLock(LOCK_NAME, lockTtl)) {
+                logger.info("Watch-folder lock lost, stopping ingestion on this node");
+                return false;
+            }
+            ingest(file, userId, attrs.size(), modified);
+            checkpointed.put(file, fingerprint);
+        }
+        return true;
+    }
+
+    private void ingest(Path file, Long userId, long size, long modified) {
+        String path = file.toString();
+        String pathHash = ContentHasher.sha256(path);
+        IngestedFile checkpoint = ingestedFileRepository.findByPathHash(pathHash)
+                .orElseGet(() -> new IngestedFile(pathHash, path));
+        if (checkpoint.getId() != null && checkpoint.matches(size, modified)) {
+            return;
+        }
+        checkpoint.setFileSize(size);
+        checkpoint.setModifiedMillis(modified);
+
+        String filename = file.getFileName().toString();
+        logger.info("📂 Ingesting {} ({} bytes)", filename, size);
+        try (MemoryBudget.Reservation reservation = memoryBudget.reserve(memoryBudget.estimateUpload(size), lockTtl)) {
+            PathMultipartFile upload = new PathMultipartFile(file, size);
+            String text = textExtractionService.extractText(upload, filename);
+            if (text == null || text.trim().length() < TextExtractionService.MIN_TEXT_LENGTH) {
+                record(checkpoint, IngestedFile.Status.SKIPPED, null, null, "Insufficient extractable text");
+                filesSkipped.increment();
+                return;
+            }
+            reservation.shrinkTo(memoryBudget.estimateText(text.length()));
+
+            // A re-dropped file with the same name becomes a new version of the earlier upload
+            Document previous = documentService.findPreviousVersion(userId, filename, null).orElse(null);
+            String contentHash = ContentHasher.sha256(text);
+            // Skipping copies no text, so an archived summary still counts as done
+            if (previous != null && contentHash.equals(previous.getContentHash())
+                    && DocumentService.hasFinishedSummary(previous)) {
+                record(checkpoint, IngestedFile.Status.SKIPPED, previous.getId(), null, "Content unchanged");
+                filesSkipped.increment();
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    SummaryJob job = summaryJobService.submit(upload, userId, previous, contentHash,
+                            text, tier, PriorityClass.BULK, previous != null);
+                    record(checkpoint, IngestedFile.Status.QUEUED, job.getDocumentId(), job.getId(), null);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to store " + filename, e);
+                }
+            });
+            filesQueued.increment();
+        } catch (Exception e) {
+            logger.error("Failed to ingest {}: {}", filename, e.getMessage());
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            try {
+                // Reload: a rolled-back insert may have left an ID on the checkpoint
+                IngestedFile failed = ingestedFileRepository.findByPathHash(pathHash)
+                        .orElseGet(() -> new IngestedFile(pathHash, path));
+                failed.setFileSize(size);
+                failed.setModifiedMillis(modified);
+                record(failed, IngestedFile.Status.FAILED, null, null,
+                        message.length() > 500 ? message.substring(0, 500) : message);
+            } catch (Exception checkpointFailure) {
+                // Retried on the next rescan
+                logger.error("Could not checkpoint {}: {}", filename, checkpointFailure.getMessage());
+            }
+            filesFailed.increment();
+        }
+    }
+
+    private void record(IngestedFile checkpoint, IngestedFile.Status status, Long documentId, Long jobId,
+                        String message) {
+        checkpoint.setStatus(status);
+        checkpoint.setDocumentId(documentId);
+        checkpoint.setJobId(jobId);
+        checkpoint.setMessage(message);
+        checkpoint.setIngestedAt(LocalDateTime.now());
+        ingestedFileRepository.save(checkpoint);
+    }
+
+    int trackedFileCount() {
+        return checkpointed.size() + sizes.size();
+    }
+
+    private static boolean isSupported(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        // Hidden and temporary files from copy tools
+        if (name.startsWith(".") || name.startsWith("~$")) {
+            return false;
+        }
+        return SUPPORTED_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static Counter ingestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ingest.watch.files")
+                .description("Files picked up from the watch folder")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    private record SizeSeen(long size, long since) {
+    }
+}
@@ -1,8 +1,8 @@
 -- Seconize Document Summarizer Database Schema
--- Run this in MySQL Workbench or MySQL command line
-
-CREATE DATABASE IF NOT EXISTS seconize_doc_summarizer;
-USE seconize_doc_summarizer;
+-- The original schema.sql, applied by Flyway to an empty database (in the
+-- configured schema, so without its CREATE DATABASE / USE lines). Databases
+-- created earlier by ddl-auto=update are baselined at this version instead;
+-- everything added since is in V2 and later.
 
 -- Users table
 CREATE TABLE IF NOT EXISTS users (
@@ -33,4 +33,4 @@ CREATE TABLE IF NOT EXISTS summaries (
     summary_text TEXT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (document_id) REFERENCES documents(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,11 @@
+-- Secondary indexes for the per-user document queries.
+
+-- findByUserIdOrderByUploadDateDesc reads the index in order (no filesort);
+-- countByUserId is answered from the index alone
+CREATE INDEX idx_documents_user_upload ON documents (user_id, upload_date, id);
+
+-- findFirstByUserIdAndFilenameOrderByUploadDateDesc (version detection)
+CREATE INDEX idx_documents_user_filename ON documents (user_id, filename, upload_date);
+
+-- One summary per document; also serves the summary lookups by document
+CREATE UNIQUE INDEX uk_summaries_document ON summaries (document_id);
@@ -0,0 +1,65 @@
+-- Range-partition documents by upload year, so date-bounded scans (archiving,
+-- retention) prune to the partitions they need and old years can be
+-- dropped or exchanged as a whole.
+--
+-- MySQL requires that a partitioned InnoDB table has no foreign keys in
+-- either direction and that every unique key includes the partitioning
+-- column. Referential integrity for documents is therefore kept by the
+-- application. The cascades dropped here are:
+-- - documents.user_id -> users ON DELETE CASCADE
+-- - documents.parent_document_id -> documents ON DELETE SET NULL
+-- - summaries.document_id -> documents ON DELETE CASCADE
+-- - summary_jobs.document_id -> documents ON DELETE CASCADE
+-- OrphanCleanupService redoes them nightly (plus summary_archive rows), and
+-- StorageLifecycleService reclaims the files of deleted documents.
+
+DROP PROCEDURE IF EXISTS drop_document_foreign_keys;
+
+DELIMITER //
+CREATE PROCEDURE drop_document_foreign_keys()
+BEGIN
+    DECLARE done INT DEFAULT FALSE;
+    DECLARE fk_table VARCHAR(64);
+    DECLARE fk_name VARCHAR(64);
+    DECLARE fks CURSOR FOR
+        SELECT TABLE_NAME, CONSTRAINT_NAME
+        FROM information_schema.REFERENTIAL_CONSTRAINTS
+        WHERE CONSTRAINT_SCHEMA = DATABASE()
+          AND (TABLE_NAME = 'documents' OR REFERENCED_TABLE_NAME = 'documents');
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = TRUE;
+
+    OPEN fks;
+    drop_loop: LOOP
+        FETCH fks INTO fk_table, fk_name;
+        IF done THEN
+            LEAVE drop_loop;
+        END IF;
+        SET @ddl = CONCAT('ALTER TABLE `', fk_table, '` DROP FOREIGN KEY `', fk_name, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE fks;
+END //
+DELIMITER ;
+
+CALL drop_document_foreign_keys();
+DROP PROCEDURE drop_document_foreign_keys;
+
+UPDATE documents SET upload_date = CURRENT_TIMESTAMP(6) WHERE upload_date IS NULL;
+
+ALTER TABLE documents
+    MODIFY upload_date DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, upload_date);
+
+-- pYYYY holds uploads from year YYYY (p2024 also everything older).
+-- SummaryArchiveService splits next year's partition off pmax ahead of time.
+ALTER TABLE documents
+    PARTITION BY RANGE COLUMNS (upload_date) (
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
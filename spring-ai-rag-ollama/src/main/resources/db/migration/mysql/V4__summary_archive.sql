@@ -0,0 +1,16 @@
+-- Cold storage for the text of old summaries. The hot summaries row keeps
+-- its metadata and an archived flag; the text moves here, compressed.
+
+ALTER TABLE summaries
+    ADD COLUMN archived BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Archive candidates are the lowest unarchived summary IDs
+CREATE INDEX idx_summaries_archived ON summaries (archived, id);
+
+CREATE TABLE IF NOT EXISTS summary_archive (
+    summary_id BIGINT PRIMARY KEY,
+    document_id BIGINT NOT NULL,
+    summary_text MEDIUMTEXT NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_summary_archive_document (document_id)
+) ROW_FORMAT=COMPRESSED;
@@ -0,0 +1,15 @@
+-- Checkpoints of the watch-folder ingestion: one row per file path, with the
+-- size and modification time it had when it was ingested.
+CREATE TABLE IF NOT EXISTS ingested_files (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    path_hash CHAR(64) NOT NULL,
+    path VARCHAR(1024) NOT NULL,
+    file_size BIGINT NOT NULL,
+    modified_millis BIGINT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    document_id BIGINT,
+    job_id BIGINT,
+    message VARCHAR(500),
+    ingested_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_ingested_files_path (path_hash)
+);
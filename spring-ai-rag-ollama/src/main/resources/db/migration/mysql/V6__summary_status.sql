@@ -0,0 +1,11 @@
+-- Explicit outcome of each summary, instead of recognising placeholders and
+-- error messages by their text.
+ALTER TABLE summaries
+    ADD COLUMN status VARCHAR(10) NOT NULL DEFAULT 'COMPLETE';
+
+UPDATE summaries SET status = 'PENDING'
+WHERE archived = FALSE AND summary_text = 'Summary pending.';
+
+UPDATE summaries SET status = 'FAILED'
+WHERE archived = FALSE
+  AND (summary_text LIKE 'Error:%' OR summary_text = 'Unable to generate summary.' OR TRIM(summary_text) = '');
@@ -0,0 +1,85 @@
+-- Columns and tables of document versioning, structured summaries, the
+-- chunk cache and cluster mode, which V1 (the original schema) doesn't have.
+--
+-- A database baselined at V1 from ddl-auto=update may already have any of
+-- them, so each column and index is added only if information_schema shows
+-- it missing, and the tables are created only if absent. None of them gets a
+-- foreign key to documents, which is partitioned since V3.
+
+DROP PROCEDURE IF EXISTS add_column_if_missing;
+DROP PROCEDURE IF EXISTS add_index_if_missing;
+
+DELIMITER //
+CREATE PROCEDURE add_column_if_missing(IN tbl VARCHAR(64), IN col VARCHAR(64), IN definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND COLUMN_NAME = col) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` ADD COLUMN `', col, '` ', definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+CREATE PROCEDURE add_index_if_missing(IN tbl VARCHAR(64), IN idx VARCHAR(64), IN cols VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND INDEX_NAME = idx) THEN
+        SET @ddl = CONCAT('CREATE INDEX `', idx, '` ON `', tbl, '` (', cols, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+-- Versions of a re-uploaded file point at their predecessor
+CALL add_column_if_missing('documents', 'parent_document_id', 'BIGINT');
+CALL add_column_if_missing('documents', 'version', 'INT NOT NULL DEFAULT 1');
+CALL add_column_if_missing('documents', 'content_hash', 'CHAR(64)');
+CALL add_column_if_missing('documents', 'text_signature', 'VARBINARY(512)');
+
+-- Metadata extracted along with the summary
+CALL add_column_if_missing('summaries', 'title', 'VARCHAR(255)');
+CALL add_column_if_missing('summaries', 'keywords', 'VARCHAR(500)');
+CALL add_column_if_missing('summaries', 'document_type', 'VARCHAR(50)');
+
+-- Cached per-chunk summaries, shared across document versions
+CREATE TABLE IF NOT EXISTS chunk_summaries (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    chunk_hash CHAR(64) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    summary_text TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_chunk_summaries_hash_model (chunk_hash, model)
+);
+
+-- Summarization jobs leased by cluster nodes (FOR UPDATE SKIP LOCKED, MySQL 8+)
+CREATE TABLE IF NOT EXISTS summary_jobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    document_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    tier VARCHAR(20) NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    incremental BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(10) NOT NULL,
+    content LONGTEXT,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP NULL
+);
+CALL add_index_if_missing('summary_jobs', 'idx_summary_jobs_status_lease', 'status, lease_expires_at');
+CALL add_index_if_missing('summary_jobs', 'idx_summary_jobs_document', 'document_id');
+
+-- Expiring locks for housekeeping that must run on one node at a time
+CREATE TABLE IF NOT EXISTS cluster_locks (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+DROP PROCEDURE add_column_if_missing;
+DROP PROCEDURE add_index_if_missing;
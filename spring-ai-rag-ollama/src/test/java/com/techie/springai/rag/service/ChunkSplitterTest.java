@@ -0,0 +1,90 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SummarizationService.splitIntoChunks, which decides both what the thorough
+ * tier sends to the model and which chunk summaries can be reused.
+ */
+class ChunkSplitterTest {
+
+    private static final int CHUNK_SIZE = 200;
+
+    @Test
+    void shortTextIsOneChunk() {
+        List<String> chunks = SummarizationService.splitIntoChunks("One paragraph.\n\nAnother one.", CHUNK_SIZE, 20);
+
+        assertThat(chunks).containsExactly("One paragraph.\n\nAnother one.");
+    }
+
+    @Test
+    void blankTextHasNoChunks() {
+        assertThat(SummarizationService.splitIntoChunks("\n\n  \n\n", CHUNK_SIZE, 20)).isEmpty();
+    }
+
+    @Test
+    void chunksNeverExceedChunkSize() {
+        String text = document(60) + "\n\n" + sentences(40);
+
+        List<String> chunks = SummarizationService.splitIntoChunks(text, CHUNK_SIZE, 100);
+
+        assertThat(chunks).isNotEmpty().allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(CHUNK_SIZE));
+    }
+
+    @Test
+    void oversizedParagraphIsCutAtSentenceBoundary() {
+        List<String> chunks = SummarizationService.splitIntoChunks(sentences(40), CHUNK_SIZE, 100);
+
+        assertThat(chunks).hasSizeGreaterThan(1).allSatisfy(chunk -> assertThat(chunk).endsWith("."));
+    }
+
+    @Test
+    void keepsAllTextWhenUnderTheChunkLimit() {
+        String text = document(60);
+
+        List<String> chunks = SummarizationService.splitIntoChunks(text, CHUNK_SIZE, 100);
+
+        assertThat(String.join("\n\n", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void stopsAtMaxChunks() {
+        List<String> chunks = SummarizationService.splitIntoChunks(document(200), CHUNK_SIZE, 3);
+
+        assertThat(chunks).hasSize(3);
+    }
+
+    @Test
+    void editNearTheStartLeavesLaterChunksUnchanged() {
+        String original = document(80);
+        String edited = "A new opening paragraph was added in this version.\n\n" + original;
+
+        List<String> before = SummarizationService.splitIntoChunks(original, CHUNK_SIZE, 100);
+        List<String> after = SummarizationService.splitIntoChunks(edited, CHUNK_SIZE, 100);
+
+        // Boundaries are content-defined, so most chunks line up again after the edit
+        assertThat(after.subList(after.size() / 2, after.size()))
+                .allSatisfy(chunk -> assertThat(before).contains(chunk));
+    }
+
+    private static String document(int paragraphs) {
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < paragraphs; i++) {
+            parts.add("Paragraph " + i + " talks about topic " + (i * 7 % 13) + " in some detail.");
+        }
+        return String.join("\n\n", parts);
+    }
+
+    private static String sentences(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(text.length() > 0 ? " " : "").append("Sentence number ").append(i).append(" ends here.");
+        }
+        return text.toString();
+    }
+}
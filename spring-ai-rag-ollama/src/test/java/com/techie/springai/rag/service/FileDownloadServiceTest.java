@@ -0,0 +1,53 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FileDownloadServiceTest {
+
+    private static final long LENGTH = 100;
+
+    @Test
+    void parsesClosedRange() {
+        assertThat(FileDownloadService.parseRange("bytes=10-19", LENGTH)).containsExactly(10L, 19L);
+    }
+
+    @Test
+    void openEndedRangeRunsToTheEnd() {
+        assertThat(FileDownloadService.parseRange("bytes=90-", LENGTH)).containsExactly(90L, 99L);
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() {
+        assertThat(FileDownloadService.parseRange("bytes=-10", LENGTH)).containsExactly(90L, 99L);
+        // Longer than the file: the whole file
+        assertThat(FileDownloadService.parseRange("bytes=-500", LENGTH)).containsExactly(0L, 99L);
+    }
+
+    @Test
+    void overLongEndIsClampedToTheFile() {
+        assertThat(FileDownloadService.parseRange("bytes=50-1000", LENGTH)).containsExactly(50L, 99L);
+    }
+
+    @Test
+    void ignoresMultipleRangesOtherUnitsAndGarbage() {
+        assertThat(FileDownloadService.parseRange("bytes=0-9,20-29", LENGTH)).isEmpty();
+        assertThat(FileDownloadService.parseRange("items=0-9", LENGTH)).isEmpty();
+        assertThat(FileDownloadService.parseRange("bytes=abc", LENGTH)).isEmpty();
+        assertThat(FileDownloadService.parseRange("bytes=a-b", LENGTH)).isEmpty();
+    }
+
+    @Test
+    void ignoresRangeEndingBeforeItStarts() {
+        assertThat(FileDownloadService.parseRange("bytes=5-3", LENGTH)).isEmpty();
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertThat(FileDownloadService.parseRange("bytes=100-", LENGTH)).isNull();
+        assertThat(FileDownloadService.parseRange("bytes=200-300", LENGTH)).isNull();
+        assertThat(FileDownloadService.parseRange("bytes=-0", LENGTH)).isNull();
+        assertThat(FileDownloadService.parseRange("bytes=-5", 0)).isNull();
+    }
+}
@@ -0,0 +1,131 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs a 100-byte budget. Free capacity is probed with zero-wait
+ * reservations, which succeed only if the bytes fit right away.
+ */
+class MemoryBudgetTest {
+
+    private static final long LIMIT = 100;
+
+    @Test
+    void admitsWaitersInArrivalOrder() throws Exception {
+        MemoryBudget budget = budget(Duration.ofSeconds(5));
+        MemoryBudget.Reservation holder = budget.reserve(LIMIT);
+
+        List<MemoryBudget.Reservation> admitted = Collections.synchronizedList(new ArrayList<>());
+        Thread large = reserveInBackground(budget, 80, admitted);
+        Thread small = reserveInBackground(budget, 30, admitted);
+
+        // Room for the small one only; it must not overtake the large one
+        holder.shrinkTo(70);
+        Thread.sleep(50);
+        awaitWaiting(large);
+        awaitWaiting(small);
+        assertThat(admitted).isEmpty();
+
+        // The large one gets in; the small one no longer fits next to it
+        holder.close();
+        large.join(5000);
+        awaitWaiting(small);
+        assertThat(admitted).hasSize(1);
+
+        admitted.get(0).close();
+        small.join(5000);
+        assertThat(admitted).hasSize(2);
+        admitted.get(1).close();
+    }
+
+    @Test
+    void rejectsAfterMaxWait() {
+        MemoryBudget budget = budget(Duration.ofMillis(50));
+        MemoryBudget.Reservation holder = budget.reserve(LIMIT);
+
+        assertThatThrownBy(() -> budget.reserve(1))
+                .isInstanceOf(MemoryBudgetExceededException.class);
+
+        // The rejected caller left the queue, so it doesn't block later ones
+        holder.close();
+        assertThat(fits(budget, LIMIT)).isTrue();
+    }
+
+    @Test
+    void shrinkToGivesBackOnlyTheDifference() {
+        MemoryBudget budget = budget(Duration.ofSeconds(5));
+        MemoryBudget.Reservation reservation = budget.reserve(LIMIT);
+
+        reservation.shrinkTo(40);
+        assertThat(fits(budget, 60)).isTrue();
+        assertThat(fits(budget, 61)).isFalse();
+
+        // Growing is not possible through shrinkTo
+        reservation.shrinkTo(70);
+        assertThat(fits(budget, 60)).isTrue();
+        reservation.close();
+    }
+
+    @Test
+    void closeReleasesOnce() {
+        MemoryBudget budget = budget(Duration.ofSeconds(5));
+        MemoryBudget.Reservation reservation = budget.reserve(60);
+        reservation.shrinkTo(40);
+        reservation.close();
+        reservation.close();
+        reservation.shrinkTo(0);
+
+        // Had anything been released twice, the budget would now exceed its limit
+        MemoryBudget.Reservation full = budget.reserve(LIMIT, Duration.ZERO);
+        assertThat(fits(budget, 1)).isFalse();
+        full.close();
+    }
+
+    @Test
+    void admitsADocumentLargerThanTheBudgetAlone() {
+        MemoryBudget budget = budget(Duration.ofSeconds(5));
+        MemoryBudget.Reservation oversized = budget.reserve(LIMIT * 5, Duration.ZERO);
+
+        assertThat(fits(budget, 1)).isFalse();
+        oversized.close();
+        assertThat(fits(budget, LIMIT)).isTrue();
+    }
+
+    private static MemoryBudget budget(Duration maxWait) {
+        return new MemoryBudget(new SimpleMeterRegistry(), true, LIMIT, 0.5, maxWait, 2.0, 1.0);
+    }
+
+    private static boolean fits(MemoryBudget budget, long bytes) {
+        try {
+            budget.reserve(bytes, Duration.ZERO).close();
+            return true;
+        } catch (MemoryBudgetExceededException e) {
+            return false;
+        }
+    }
+
+    private static Thread reserveInBackground(MemoryBudget budget, long bytes,
+                                              List<MemoryBudget.Reservation> admitted) throws InterruptedException {
+        Thread thread = new Thread(() -> admitted.add(budget.reserve(bytes)));
+        thread.start();
+        awaitWaiting(thread);
+        return thread;
+    }
+
+    // Parked in the budget's timed wait, or already admitted (the assertions then fail)
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.isAlive() && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
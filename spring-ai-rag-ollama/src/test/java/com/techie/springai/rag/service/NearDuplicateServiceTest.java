@@ -0,0 +1,97 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.techie.springai.rag.Repository.DocumentRepository;
+import com.techie.springai.rag.Repository.SummaryRepository;
+import com.techie.springai.rag.Repository.SummaryView;
+import com.techie.springai.rag.entity.Summary;
+import com.techie.springai.rag.service.NearDuplicateService.NearDuplicate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Texts are 300 generated words, so similarities are stable: signatures
+ * depend only on the words and the fixed MinHash seeds.
+ */
+class NearDuplicateServiceTest {
+
+    private final SummaryRepository summaryRepository = mock(SummaryRepository.class);
+    private final NearDuplicateService service = new NearDuplicateService(mock(DocumentRepository.class),
+            summaryRepository, new SimpleMeterRegistry(), true, 0.9, 0.5, 100);
+
+    @Test
+    void similarityTracksSharedShingles() {
+        String text = words(0, 300);
+        String edited = text.replace(word(150), "changed");
+
+        assertThat(NearDuplicateService.similarity(service.signature(text), service.signature(text))).isEqualTo(1.0);
+        assertThat(NearDuplicateService.similarity(service.signature(text), service.signature(edited))).isGreaterThan(0.9);
+        assertThat(NearDuplicateService.similarity(service.signature(text), service.signature(words(5000, 300))))
+                .isLessThan(0.1);
+    }
+
+    @Test
+    void findsPartialMatchThroughItsBands() {
+        service.register(1L, 7L, service.signature(words(0, 300)));
+
+        // The last fifth replaced: similar, but not enough to reuse the summary
+        NearDuplicate match = service.find(7L, service.signature(words(0, 240) + words(9000, 60))).orElseThrow();
+
+        assertThat(match.documentId()).isEqualTo(1L);
+        assertThat(match.similarity()).isBetween(0.5, 0.9);
+        assertThat(match.reusable()).isFalse();
+    }
+
+    @Test
+    void reusesCompleteSummaryOfACloseMatch() {
+        String text = words(0, 300);
+        service.register(1L, 7L, service.signature(text));
+        when(summaryRepository.findViewByDocumentId(1L)).thenReturn(Optional.of(new SummaryView(
+                1L, 7L, "report.pdf", LocalDateTime.now(), "Earlier summary", Summary.Status.COMPLETE,
+                LocalDateTime.now())));
+
+        NearDuplicate match = service.find(7L, service.signature(text.replace(word(150), "changed"))).orElseThrow();
+
+        assertThat(match.reusable()).isTrue();
+        assertThat(match.summaryText()).isEqualTo("Earlier summary");
+    }
+
+    @Test
+    void neverMatchesAnotherUsersDocument() {
+        String text = words(0, 300);
+        service.register(1L, 7L, service.signature(text));
+
+        assertThat(service.find(8L, service.signature(text))).isEmpty();
+    }
+
+    @Test
+    void reindexingADocumentDropsItsOldBands() {
+        String before = words(0, 300);
+        String after = words(5000, 300);
+        service.register(1L, 7L, service.signature(before));
+        service.register(1L, 7L, service.signature(after));
+
+        assertThat(service.find(7L, service.signature(before))).isEmpty();
+        assertThat(service.find(7L, service.signature(after))).isPresent();
+    }
+
+    private static String words(int offset, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(word(offset + i)).append(i % 12 == 11 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private static String word(int index) {
+        return "term" + (index * 7919 % 100003);
+    }
+}
@@ -0,0 +1,69 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tesseract is replaced by a recognizer that counts its calls, optionally
+ * taking a fixed time per page. Every generated page has different text, so
+ * no page is served from the cache.
+ */
+class OcrServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger recognized = new AtomicInteger();
+    private OcrService ocr;
+
+    @AfterEach
+    void tearDown() {
+        if (ocr != null) {
+            ocr.shutdown();
+        }
+    }
+
+    @Test
+    void stopsAtThePageBudget() throws Exception {
+        ocr = service(Duration.ZERO, 3, Duration.ofMinutes(1));
+
+        String text = ocr.extractText(new ByteArrayResource(PdfParallelExtractorTest.pdf(5)), "scan.pdf");
+
+        assertThat(recognized.get()).isEqualTo(3);
+        assertThat(text).contains("Recognized page 3").doesNotContain("Recognized page 4");
+        assertThat(pages("ocr")).isEqualTo(3);
+        assertThat(pages("skipped")).isEqualTo(2);
+    }
+
+    @Test
+    void stopsAtTheTimeBudget() throws Exception {
+        // One worker at 200 ms a page can't get through ten pages in a second
+        ocr = service(Duration.ofMillis(200), 100, Duration.ofSeconds(1));
+
+        ocr.extractText(new ByteArrayResource(PdfParallelExtractorTest.pdf(10)), "scan.pdf");
+
+        assertThat(recognized.get()).isLessThan(10);
+        // Pages not reached, and pages still queued at the deadline, count as skipped
+        assertThat(pages("ocr")).isEqualTo(recognized.get());
+        assertThat(pages("skipped")).isEqualTo(10 - recognized.get());
+    }
+
+    private OcrService service(Duration perPage, int maxPages, Duration timeBudget) {
+        OcrService.PageRecognizer recognizer = png -> {
+            Thread.sleep(perPage.toMillis());
+            return "Recognized page " + recognized.incrementAndGet();
+        };
+        // Low resolution keeps rendering fast; the recognizer ignores the image anyway
+        return new OcrService(meterRegistry, recognizer, 72, maxPages, timeBudget, 1, 100);
+    }
+
+    private double pages(String result) {
+        return meterRegistry.counter("ocr.pages", "result", result).count();
+    }
+}
@@ -0,0 +1,55 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * Tika vs page-parallel extraction of a generated text PDF. Skipped unless
+ * asked for, since timings depend on the machine:
+ *
+ *   mvn test -Dtest=PdfExtractionBenchmark -Dbenchmark=true -Dbenchmark.pages=400
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PdfExtractionBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void tikaVersusParallel() throws Exception {
+        int pages = Integer.getInteger("benchmark.pages", 400);
+        byte[] pdf = PdfParallelExtractorTest.pdf(pages);
+        PdfParallelExtractor extractor = new PdfParallelExtractor(true, 50, 0, 25, 0);
+        ByteArrayResource source = new ByteArrayResource(pdf);
+
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                PdfParallelExtractorTest.tika(pdf);
+                extractor.extract(source, "warmup.pdf");
+            }
+
+            long tikaNanos = 0;
+            long parallelNanos = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                PdfParallelExtractorTest.tika(pdf);
+                tikaNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                assertThat(extractor.extract(source, "benchmark.pdf")).isNotNull();
+                parallelNanos += System.nanoTime() - start;
+            }
+
+            double tikaPagesPerSecond = pages * ROUNDS / (tikaNanos / 1e9);
+            double parallelPagesPerSecond = pages * ROUNDS / (parallelNanos / 1e9);
+            System.out.printf("PDF extraction, %d pages, %d cores: Tika %.1f pages/s, parallel %.1f pages/s (%.2fx)%n",
+                    pages, Runtime.getRuntime().availableProcessors(),
+                    tikaPagesPerSecond, parallelPagesPerSecond, parallelPagesPerSecond / tikaPagesPerSecond);
+        } finally {
+            extractor.shutdown();
+        }
+    }
+}
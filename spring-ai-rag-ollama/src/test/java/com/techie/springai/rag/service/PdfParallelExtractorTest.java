@@ -0,0 +1,106 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+class PdfParallelExtractorTest {
+
+    private PdfParallelExtractor extractor;
+
+    @AfterEach
+    void tearDown() {
+        if (extractor != null) {
+            extractor.shutdown();
+        }
+    }
+
+    @Test
+    void leavesSmallFilesToTikaWithoutOpeningThem() throws Exception {
+        byte[] pdf = pdf(60);
+        extractor = new PdfParallelExtractor(true, 50, pdf.length + 1, 25, 4);
+
+        assertThat(extractor.extract(new ByteArrayResource(pdf), "small.pdf")).isNull();
+    }
+
+    @Test
+    void leavesPdfsBelowThePageThresholdToTika() throws Exception {
+        extractor = new PdfParallelExtractor(true, 50, 0, 25, 4);
+
+        assertThat(extractor.extract(new ByteArrayResource(pdf(10)), "short.pdf")).isNull();
+    }
+
+    @Test
+    void keepsPageOrderAcrossPartitions() throws Exception {
+        extractor = new PdfParallelExtractor(true, 50, 0, 5, 4);
+
+        String text = extractor.extract(new ByteArrayResource(pdf(60)), "long.pdf");
+
+        assertThat(text).isNotNull();
+        int previous = -1;
+        for (int page = 1; page <= 60; page++) {
+            int at = text.indexOf("Page " + page + " line 1 ");
+            assertThat(at).isGreaterThan(previous);
+            previous = at;
+        }
+    }
+
+    @Test
+    void matchesTikaOutput() throws Exception {
+        byte[] pdf = pdf(60);
+        extractor = new PdfParallelExtractor(true, 50, 0, 5, 4);
+
+        String parallel = extractor.extract(new ByteArrayResource(pdf), "long.pdf");
+
+        assertThat(normalize(parallel)).isEqualTo(normalize(tika(pdf)));
+    }
+
+    /**
+     * A text-only PDF with numbered pages and lines, so order is checkable.
+     */
+    static byte[] pdf(int pages) throws Exception {
+        try (PDDocument pdf = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdPage = new PDPage();
+                pdf.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(pdf, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 11);
+                    content.newLineAtOffset(72, 720);
+                    for (int line = 1; line <= 40; line++) {
+                        content.showText("Page " + page + " line " + line + " of the generated benchmark document.");
+                        content.newLineAtOffset(0, -15);
+                    }
+                    content.endText();
+                }
+            }
+            pdf.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static String tika(byte[] pdf) throws Exception {
+        BodyContentHandler handler = new BodyContentHandler(TextExtractionService.MAX_CONTENT_LENGTH);
+        try (InputStream is = new ByteArrayResource(pdf).getInputStream()) {
+            new AutoDetectParser().parse(is, handler, new Metadata(), new ParseContext());
+        }
+        return handler.toString().trim();
+    }
+
+    private static String normalize(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+}
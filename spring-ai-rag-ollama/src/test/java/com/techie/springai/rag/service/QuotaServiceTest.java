@@ -0,0 +1,98 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class QuotaServiceTest {
+
+    @Test
+    void bucketStartsFull() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+
+        assertThatCode(() -> quotas.consumeBytes(1L, 1_000)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsWhenBucketIsEmpty() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+        quotas.consumeBytes(1L, 900);
+
+        assertThatThrownBy(() -> quotas.consumeBytes(1L, 200))
+                .isInstanceOf(QuotaExceededException.class)
+                .hasMessageContaining("Upload quota");
+    }
+
+    @Test
+    void rejectedRequestConsumesNothing() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+        quotas.consumeLlmTokens(1L, 900);
+
+        assertThatThrownBy(() -> quotas.consumeLlmTokens(1L, 200)).isInstanceOf(QuotaExceededException.class);
+        assertThatCode(() -> quotas.consumeLlmTokens(1L, 90)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void bucketsArePerUserAndPerResource() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+        quotas.consumeBytes(1L, 1_000);
+
+        assertThatCode(() -> quotas.consumeBytes(2L, 1_000)).doesNotThrowAnyException();
+        assertThatCode(() -> quotas.consumeLlmTokens(1L, 1_000)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsContinuously() throws InterruptedException {
+        // 10 bytes per millisecond
+        QuotaService quotas = new QuotaService(36_000_000, 1_000);
+        quotas.consumeBytes(1L, 36_000_000);
+        assertThatThrownBy(() -> quotas.consumeBytes(1L, 5_000)).isInstanceOf(QuotaExceededException.class);
+
+        Thread.sleep(1_000);
+
+        assertThatCode(() -> quotas.consumeBytes(1L, 5_000)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() throws InterruptedException {
+        QuotaService quotas = new QuotaService(36_000_000, 1_000);
+        quotas.consumeBytes(1L, 1);
+
+        Thread.sleep(50);
+
+        assertThatThrownBy(() -> quotas.consumeBytes(1L, 36_000_001)).isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void refundRestoresCapacityUpToTheLimit() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+        quotas.consumeLlmTokens(1L, 1_000);
+
+        quotas.refundLlmTokens(1L, 600);
+        assertThatCode(() -> quotas.consumeLlmTokens(1L, 600)).doesNotThrowAnyException();
+
+        quotas.refundLlmTokens(1L, 5_000);
+        assertThatThrownBy(() -> quotas.consumeLlmTokens(1L, 1_001)).isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        QuotaService quotas = new QuotaService(1_000, 1_000);
+        quotas.consumeBytes(1L, 500);
+        quotas.consumeBytes(2L, 500);
+        quotas.refundBytes(2L, 500);
+
+        quotas.evictFullBuckets();
+
+        assertThat(quotas.bucketCount()).isEqualTo(1);
+        assertThatThrownBy(() -> quotas.consumeBytes(1L, 600)).isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void estimatesAtLeastOneToken() {
+        assertThat(QuotaService.estimateTokens(0)).isEqualTo(1);
+        assertThat(QuotaService.estimateTokens(4_000)).isEqualTo(1_000);
+    }
+}
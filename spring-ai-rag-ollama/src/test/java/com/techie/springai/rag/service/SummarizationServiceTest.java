@@ -0,0 +1,160 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.techie.springai.rag.Repository.ChunkSummaryRepository;
+import com.techie.springai.rag.entity.ChunkSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the service against a model that always gives the same answer and an
+ * in-memory chunk cache. Balanced chunks are 100 characters, so each of the
+ * test paragraphs is a chunk of its own.
+ */
+class SummarizationServiceTest {
+
+    private static final String ANSWER =
+            "{\"summary\": \"Quarterly figures by region.\", \"title\": \"Regional report\", "
+          + "\"keywords\": [\"revenue\"], \"documentType\": \"report\"}";
+
+    private static final List<String> PARAGRAPHS = List.of(
+            "Section one covers the quarterly revenue of the northern region.",
+            "Section two covers the quarterly revenue of the southern region.",
+            "Section three lists the operating costs of every branch office.",
+            "Section four compares the headcount with the previous quarter.",
+            "Section five summarizes the outlook for the next financial year.");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final Map<String, ChunkSummary> chunkCache = new HashMap<>();
+    private final SummarizationService service = service();
+
+    @Test
+    void newVersionReusesCachedChunks() {
+        String first = String.join("\n\n", PARAGRAPHS);
+        String second = first.replace("next financial year", "next two financial years");
+
+        // A new version with nothing cached yet: one call per chunk plus the final one
+        DocumentAnalysis firstAnalysis = service.analyze(first, SummaryTier.BALANCED, true);
+        assertThat(firstAnalysis.isComplete()).isTrue();
+        assertThat(modelCalls.get()).isEqualTo(PARAGRAPHS.size() + 1);
+        assertThat(chunkCache).hasSize(PARAGRAPHS.size());
+
+        // Only the edited chunk reaches the model again
+        assertThat(service.reusesChunkCache(second, SummaryTier.BALANCED)).isTrue();
+        modelCalls.set(0);
+        DocumentAnalysis secondAnalysis = service.analyze(second, SummaryTier.BALANCED, true);
+        assertThat(secondAnalysis.isComplete()).isTrue();
+        assertThat(modelCalls.get()).isEqualTo(2);
+        assertThat(chunkCache).hasSize(PARAGRAPHS.size() + 1);
+    }
+
+    @Test
+    void firstUploadIsSummarizedWholeAndCachesNothing() {
+        String text = String.join("\n\n", PARAGRAPHS);
+
+        service.analyze(text, SummaryTier.BALANCED, false);
+
+        assertThat(modelCalls.get()).isEqualTo(1);
+        assertThat(chunkCache).isEmpty();
+        assertThat(service.reusesChunkCache(text, SummaryTier.BALANCED)).isFalse();
+    }
+
+    @Test
+    void parsesStrictJson() {
+        DocumentAnalysis analysis = service.parseAnalysis(ANSWER);
+
+        assertThat(analysis.summary()).isEqualTo("Quarterly figures by region.");
+        assertThat(analysis.title()).isEqualTo("Regional report");
+        assertThat(analysis.keywords()).containsExactly("revenue");
+        assertThat(analysis.documentType()).isEqualTo("report");
+        assertThat(parsedAs("structured")).isEqualTo(1);
+    }
+
+    @Test
+    void parsesSloppyJsonLeniently() {
+        // Prose around it, a raw newline in a string, a bare keyword and a trailing comma
+        DocumentAnalysis analysis = service.parseAnalysis("""
+                Here is the analysis:
+                {"summary": "Line one.
+                Line two.", "title": "Regional report", "keywords": "revenue, costs", "documentType": "Research Paper",}
+                Hope this helps!""");
+
+        assertThat(analysis.summary()).isEqualTo("Line one.\nLine two.");
+        assertThat(analysis.keywords()).containsExactly("revenue", "costs");
+        assertThat(analysis.documentType()).isEqualTo("research-paper");
+        assertThat(parsedAs("lenient")).isEqualTo(1);
+    }
+
+    @Test
+    void salvagesSummaryOfTruncatedJson() {
+        // Cut off by the token limit before the closing quote and brace
+        DocumentAnalysis analysis = service.parseAnalysis(
+                "{\"title\": \"Regional report\", \"summary\": \"Revenue grew.\\nCosts fell by \\\"a lot\\\" in the no");
+
+        assertThat(analysis.summary()).isEqualTo("Revenue grew.\nCosts fell by \"a lot\" in the no");
+        assertThat(analysis.hasMetadata()).isFalse();
+        assertThat(analysis.isComplete()).isTrue();
+        assertThat(parsedAs("salvaged")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsPlainTextAsTheSummary() {
+        DocumentAnalysis analysis = service.parseAnalysis("The report covers quarterly revenue by region.");
+
+        assertThat(analysis.summary()).isEqualTo("The report covers quarterly revenue by region.");
+        assertThat(analysis.hasMetadata()).isFalse();
+        assertThat(parsedAs("fallback")).isEqualTo(1);
+    }
+
+    private double parsedAs(String result) {
+        return meterRegistry.counter("summary.analysis.parse", "result", result).count();
+    }
+
+    private SummarizationService service() {
+        ChatClient chatClient = mock(ChatClient.class);
+        ChatClient.ChatClientRequestSpec request = mock(ChatClient.ChatClientRequestSpec.class, RETURNS_SELF);
+        ChatClient.CallResponseSpec call = mock(ChatClient.CallResponseSpec.class);
+        when(chatClient.prompt()).thenReturn(request);
+        when(request.call()).thenReturn(call);
+        when(call.chatResponse()).thenAnswer(invocation -> {
+            modelCalls.incrementAndGet();
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(ANSWER))));
+        });
+
+        ChunkSummaryRepository repository = mock(ChunkSummaryRepository.class);
+        when(repository.findByChunkHashAndModel(anyString(), anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(chunkCache.get(invocation.getArgument(0) + "/" + invocation.getArgument(1))));
+        when(repository.save(any(ChunkSummary.class))).thenAnswer(invocation -> {
+            ChunkSummary chunk = invocation.getArgument(0);
+            chunkCache.put(chunk.getChunkHash() + "/" + chunk.getModel(), chunk);
+            return chunk;
+        });
+
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("summary.tier.balanced.max-input-chars", "100");
+        return new SummarizationService(chatClient, repository, meterRegistry,
+                ObservationRegistry.NOOP, new PromptTemplateRegistry(2), Schedulers.immediate(), env);
+    }
+}
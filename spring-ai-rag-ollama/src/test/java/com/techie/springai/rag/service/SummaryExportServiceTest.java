@@ -0,0 +1,103 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.techie.springai.rag.Repository.SummaryRepository;
+import com.techie.springai.rag.Repository.SummaryView;
+import com.techie.springai.rag.entity.Summary;
+
+/**
+ * The repository answers keyset queries from an in-memory list, the way the
+ * real query does: rows after (uploadDate, id), in that order, one page at a
+ * time.
+ */
+class SummaryExportServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 9, 0);
+
+    private final SummaryRepository summaryRepository = mock(SummaryRepository.class);
+    private final List<SummaryView> rows = new ArrayList<>();
+
+    @Test
+    void exportsEveryCompleteSummaryAcrossPages() throws IOException {
+        row(1L, "a.pdf", MONDAY, Summary.Status.COMPLETE);
+        // Same upload time: the ID breaks the tie, so neither is lost at a page boundary
+        row(2L, "b.pdf", MONDAY.plusHours(1), Summary.Status.COMPLETE);
+        row(3L, "c.pdf", MONDAY.plusHours(1), Summary.Status.COMPLETE);
+        row(4L, "d.pdf", MONDAY.plusHours(2), Summary.Status.PENDING);
+        row(5L, "e.pdf", MONDAY.plusHours(3), Summary.Status.COMPLETE);
+
+        List<String> entries = export(2);
+
+        assertThat(entries).containsExactly("1_a_summary.txt", "2_b_summary.txt", "3_c_summary.txt",
+                "5_e_summary.txt");
+        verify(summaryRepository, times(3)).findViewsByUserIdAfter(eq(USER_ID), any(), anyLong(), any());
+    }
+
+    @Test
+    void fullLastPageCostsOneEmptyQuery() throws IOException {
+        row(1L, "a.pdf", MONDAY, Summary.Status.COMPLETE);
+        row(2L, "b.pdf", MONDAY.plusHours(1), Summary.Status.COMPLETE);
+
+        assertThat(export(2)).hasSize(2);
+        verify(summaryRepository, times(2)).findViewsByUserIdAfter(eq(USER_ID), any(), anyLong(), any());
+    }
+
+    @Test
+    void exportsAnEmptyArchiveForAUserWithoutSummaries() throws IOException {
+        assertThat(export(2)).isEmpty();
+    }
+
+    private List<String> export(int pageSize) throws IOException {
+        when(summaryRepository.findViewsByUserIdAfter(eq(USER_ID), any(), anyLong(), any())).thenAnswer(invocation -> {
+            LocalDateTime afterDate = invocation.getArgument(1);
+            long afterId = invocation.getArgument(2);
+            Pageable pageable = invocation.getArgument(3);
+            return rows.stream()
+                    .filter(view -> view.uploadDate().isAfter(afterDate)
+                            || view.uploadDate().isEqual(afterDate) && view.documentId() > afterId)
+                    .sorted(Comparator.comparing(SummaryView::uploadDate).thenComparing(SummaryView::documentId))
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SummaryExportService(summaryRepository, pageSize).writeZip(USER_ID, out);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()),
+                StandardCharsets.UTF_8)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        return entries;
+    }
+
+    private void row(Long documentId, String filename, LocalDateTime uploadDate, Summary.Status status) {
+        rows.add(new SummaryView(documentId, USER_ID, filename, uploadDate, "Summary of " + filename, status,
+                uploadDate));
+    }
+}
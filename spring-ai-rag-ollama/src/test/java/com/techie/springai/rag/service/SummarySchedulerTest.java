@@ -0,0 +1,215 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the scheduler with a single worker. The worker is held by one
+ * acquired slot while the test queues work, so the order in which the
+ * queued jobs are granted afterwards is exactly the scheduler's pick order.
+ */
+class SummarySchedulerTest {
+
+    private SummaryScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void roundRobinsUsersWithinAClass() throws Exception {
+        scheduler = scheduler(100, Duration.ofSeconds(5));
+        Runnable blocker = hold();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<?>> done = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            done.add(record(1L, PriorityClass.BULK, "u1", order));
+        }
+        for (int i = 0; i < 2; i++) {
+            done.add(record(2L, PriorityClass.BULK, "u2", order));
+        }
+        blocker.run();
+        awaitAll(done);
+
+        assertThat(order).containsExactly("u1", "u2", "u1", "u2", "u1", "u1", "u1");
+    }
+
+    @Test
+    void weightsPriorityClasses() throws Exception {
+        scheduler = scheduler(100, Duration.ofSeconds(5));
+        Runnable blocker = hold();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<?>> done = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            done.add(record(1L, PriorityClass.BULK, "bulk", order));
+            done.add(record(2L, PriorityClass.INTERACTIVE, "interactive", order));
+        }
+        blocker.run();
+        awaitAll(done);
+
+        // Weights 4:1, so every window of five picks holds one bulk job
+        assertThat(order.subList(0, 5)).filteredOn("bulk"::equals).hasSize(1);
+        assertThat(order.subList(5, 10)).filteredOn("bulk"::equals).hasSize(1);
+        assertThat(order).filteredOn("interactive"::equals).hasSize(10);
+    }
+
+    @Test
+    void rejectsUsersOverTheirQueueLimit() throws Exception {
+        scheduler = scheduler(2, Duration.ofSeconds(5));
+        Runnable blocker = hold();
+
+        List<CompletableFuture<Runnable>> queued = new ArrayList<>();
+        queued.add(scheduler.acquire(1L, PriorityClass.BULK));
+        queued.add(scheduler.acquire(1L, PriorityClass.BULK));
+
+        assertThatThrownBy(() -> scheduler.acquire(1L, PriorityClass.BULK))
+                .isInstanceOf(QuotaExceededException.class);
+        // Other users are unaffected
+        queued.add(scheduler.acquire(2L, PriorityClass.BULK));
+
+        List<CompletableFuture<?>> done = new ArrayList<>();
+        queued.forEach(slot -> done.add(slot.thenAccept(Runnable::run)));
+        blocker.run();
+        awaitAll(done);
+    }
+
+    @Test
+    void workerSurvivesTasksThatThrowErrors() throws Exception {
+        scheduler = scheduler(100, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> scheduler.submit(1L, PriorityClass.INTERACTIVE, () -> {
+            throw new AssertionError("boom");
+        })).isInstanceOf(AssertionError.class);
+
+        assertThat(scheduler.submit(1L, PriorityClass.INTERACTIVE, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void submitGivesUpAfterMaxWaitAndLeavesTheQueue() throws Exception {
+        scheduler = scheduler(1, Duration.ofMillis(200));
+        // A running task keeps its worker past max-wait
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            try {
+                scheduler.submit(0L, PriorityClass.INTERACTIVE, () -> {
+                    started.complete(null);
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+            } catch (Exception e) {
+                // Times out on the caller's side while the worker keeps running it
+            }
+        });
+        started.get(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> scheduler.submit(1L, PriorityClass.BULK, () -> "late"))
+                .isInstanceOf(TimeoutException.class);
+
+        // The timed-out job no longer counts against the user's queue limit
+        CompletableFuture<Runnable> next = scheduler.acquire(1L, PriorityClass.BULK);
+        release.countDown();
+        next.get(5, TimeUnit.SECONDS).run();
+    }
+
+    @Test
+    void submitWithoutDeadlineOutlastsMaxWait() throws Exception {
+        scheduler = scheduler(100, Duration.ofMillis(50));
+
+        String result = scheduler.submitWithoutDeadline(1L, PriorityClass.BULK, () -> {
+            Thread.sleep(200);
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+    }
+
+    @Test
+    void holdsStreamingSlotsPastMaxWaitUntilReleased() throws Exception {
+        scheduler = scheduler(100, Duration.ofMillis(50));
+        Runnable blocker = hold();
+
+        CompletableFuture<Runnable> next = scheduler.acquire(1L, PriorityClass.BULK);
+
+        assertThatThrownBy(() -> next.get(300, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        blocker.run();
+        next.get(5, TimeUnit.SECONDS).run();
+    }
+
+    @Test
+    void slotGrantedAfterTheCallerGaveUpIsNotHeld() throws Exception {
+        scheduler = scheduler(100, Duration.ofSeconds(5));
+        Runnable blocker = hold();
+
+        // E.g. the client disconnected while queued
+        scheduler.acquire(1L, PriorityClass.BULK).cancel(false);
+        CompletableFuture<Runnable> next = scheduler.acquire(2L, PriorityClass.BULK);
+        blocker.run();
+
+        next.get(5, TimeUnit.SECONDS).run();
+    }
+
+    @Test
+    void shutdownFailsQueuedJobs() throws Exception {
+        scheduler = scheduler(100, Duration.ofSeconds(5));
+        Runnable blocker = hold();
+        CompletableFuture<Runnable> queued = scheduler.acquire(1L, PriorityClass.BULK);
+
+        scheduler.shutdown();
+
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> scheduler.acquire(1L, PriorityClass.BULK))
+                .isInstanceOf(RejectedExecutionException.class);
+        blocker.run();
+    }
+
+    private static SummaryScheduler scheduler(int maxQueuedPerUser, Duration maxWait) {
+        return new SummaryScheduler(new SimpleMeterRegistry(), 1, maxQueuedPerUser, 4, 1, maxWait);
+    }
+
+    /**
+     * Occupies the only worker until the returned handle is run.
+     */
+    private Runnable hold() throws Exception {
+        return scheduler.acquire(0L, PriorityClass.INTERACTIVE).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records the label when the worker picks the job up, then frees the worker.
+     */
+    private CompletableFuture<?> record(Long userId, PriorityClass priority, String label, List<String> order) {
+        return scheduler.acquire(userId, priority).thenAccept(release -> {
+            order.add(label);
+            release.run();
+        });
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SummaryTierTest {
+
+    @Test
+    void missingParamDefaultsToBalanced() {
+        assertThat(SummaryTier.fromParam(null)).isEqualTo(SummaryTier.BALANCED);
+        assertThat(SummaryTier.fromParam("")).isEqualTo(SummaryTier.BALANCED);
+        assertThat(SummaryTier.fromParam("  ")).isEqualTo(SummaryTier.BALANCED);
+    }
+
+    @Test
+    void parsesKnownTiersIgnoringCaseAndWhitespace() {
+        assertThat(SummaryTier.fromParam("fast")).isEqualTo(SummaryTier.FAST);
+        assertThat(SummaryTier.fromParam("Balanced")).isEqualTo(SummaryTier.BALANCED);
+        assertThat(SummaryTier.fromParam(" THOROUGH ")).isEqualTo(SummaryTier.THOROUGH);
+    }
+
+    @Test
+    void unknownTierIsNull() {
+        assertThat(SummaryTier.fromParam("ultra")).isNull();
+    }
+
+    @Test
+    void keyMatchesPropertyPrefix() {
+        assertThat(SummaryTier.THOROUGH.key()).isEqualTo("thorough");
+    }
+}
@@ -0,0 +1,64 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.techie.springai.rag.entity.Document;
+import com.techie.springai.rag.entity.Summary;
+
+/**
+ * DocumentService.hasUsableSummary decides whether an earlier version's
+ * summary may be reused for an upload with unchanged content.
+ */
+class UsableSummaryTest {
+
+    @Test
+    void finishedSummaryIsUsable() {
+        assertThat(DocumentService.hasUsableSummary(document("A five sentence summary."))).isTrue();
+    }
+
+    @Test
+    void missingSummaryIsNotUsable() {
+        assertThat(DocumentService.hasUsableSummary(new Document())).isFalse();
+    }
+
+    @Test
+    void pendingSummaryIsNotUsable() {
+        assertThat(DocumentService.hasUsableSummary(document(DocumentAnalysis.pending()))).isFalse();
+    }
+
+    @Test
+    void failedSummaryIsNotUsable() {
+        assertThat(DocumentService.hasUsableSummary(
+                document(DocumentAnalysis.failed(SummarizationService.FAILURE_MESSAGE)))).isFalse();
+    }
+
+    @Test
+    void statusNotTextDecidesUsability() {
+        assertThat(DocumentService.hasUsableSummary(
+                document("Error: budgets of the three teams were exceeded in Q3."))).isTrue();
+    }
+
+    @Test
+    void archivedSummaryIsNotReused() {
+        Document document = document("A five sentence summary.");
+        document.getSummary().setSummaryText("");
+        document.getSummary().setArchived(true);
+
+        assertThat(DocumentService.hasUsableSummary(document)).isFalse();
+        assertThat(DocumentService.hasFinishedSummary(document)).isTrue();
+    }
+
+    static Document document(String summaryText) {
+        return document(DocumentAnalysis.of(summaryText));
+    }
+
+    static Document document(DocumentAnalysis analysis) {
+        Document document = new Document();
+        Summary summary = new Summary(document, analysis.summary());
+        summary.setStatus(analysis.status());
+        document.setSummary(summary);
+        return document;
+    }
+}
@@ -0,0 +1,149 @@
+package com.techie.springai.rag.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techie.springai.rag.Repository.IngestedFileRepository;
+import com.techie.springai.rag.Repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives the scan and settle rounds of the watcher by hand. Extraction finds
+ * no text, so an ingested file is checkpointed as skipped without queueing a
+ * job; what matters here is how often extraction is reached.
+ */
+class WatchFolderIngestionServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @TempDir
+    Path dir;
+
+    private final TextExtractionService textExtractionService = mock(TextExtractionService.class);
+    private final IngestedFileRepository ingestedFileRepository = mock(IngestedFileRepository.class);
+
+    @Test
+    void ingestsOnceTheSizeHoldsStill() throws IOException {
+        WatchFolderIngestionService service = service(Duration.ZERO);
+        drop("report.txt");
+
+        // The first round only notes the size
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService, never()).extractText(any(), anyString());
+
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService).extractText(any(), eq("report.txt"));
+    }
+
+    @Test
+    void waitsWhileAFileIsStillGrowing() throws IOException {
+        WatchFolderIngestionService service = service(Duration.ZERO);
+        Path file = drop("report.txt");
+
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        Files.writeString(file, " More text.", StandardOpenOption.APPEND);
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService, never()).extractText(any(), anyString());
+
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService).extractText(any(), eq("report.txt"));
+    }
+
+    @Test
+    void oldModificationTimeDoesNotSkipTheSettlePeriod() throws IOException {
+        // As left by a copy that preserves the source's mtime
+        WatchFolderIngestionService service = service(Duration.ofHours(1));
+        Path file = drop("report.txt");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        service.ingestSettled(USER_ID);
+
+        verify(textExtractionService, never()).extractText(any(), anyString());
+    }
+
+    @Test
+    void skipsCheckpointedFilesUntilTheyAreTouched() throws IOException {
+        WatchFolderIngestionService service = service(Duration.ZERO);
+        Path file = drop("report.txt");
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        service.ingestSettled(USER_ID);
+
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService, times(1)).extractText(any(), anyString());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 30_000));
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        service.ingestSettled(USER_ID);
+        verify(textExtractionService, times(2)).extractText(any(), anyString());
+    }
+
+    @Test
+    void rescanForgetsRemovedFiles() throws IOException {
+        WatchFolderIngestionService service = service(Duration.ZERO);
+        Path ingested = drop("report.txt");
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        service.ingestSettled(USER_ID);
+        Path waiting = drop("notes.txt");
+        service.scan(dir);
+        service.ingestSettled(USER_ID);
+        assertThat(service.trackedFileCount()).isEqualTo(2);
+
+        Files.delete(ingested);
+        Files.delete(waiting);
+        service.scan(dir);
+
+        assertThat(service.trackedFileCount()).isZero();
+    }
+
+    private Path drop(String name) throws IOException {
+        Path file = Files.writeString(dir.resolve(name), "Quarterly revenue by region.");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        return file;
+    }
+
+    private WatchFolderIngestionService service(Duration settle) {
+        when(textExtractionService.extractText(any(InputStreamSource.class), anyString())).thenReturn(null);
+        when(ingestedFileRepository.findByPathHash(anyString())).thenReturn(Optional.empty());
+        ClusterNode clusterNode = mock(ClusterNode.class);
+        when(clusterNode.tryLock(anyString(), any(Duration.class))).thenReturn(true);
+        MemoryBudget memoryBudget = new MemoryBudget(new SimpleMeterRegistry(), false, 0, 0.5,
+                Duration.ZERO, 2.0, 1.0);
+
+        return new WatchFolderIngestionService(textExtractionService, mock(DocumentService.class),
+                mock(SummaryJobService.class), memoryBudget, ingestedFileRepository, mock(UserRepository.class),
+                clusterNode, mock(TransactionTemplate.class), new SimpleMeterRegistry(), true,
+                dir.toString(), "watch@example.com", "balanced", settle, Duration.ofMinutes(5),
+                Duration.ofMinutes(10));
+    }
+}